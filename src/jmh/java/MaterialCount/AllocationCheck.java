@@ -0,0 +1,83 @@
+package MaterialCount;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// calculateInto 的自检：对所有(世界, 层级, 物品)比较 sink 与 calculate 的数值，
+// 再用线程分配计数器确认预热后的调用不分配任何对象；任何不一致或分配都以非零状态退出
+//
+// 用法: java -cp <类路径> MaterialCount.AllocationCheck [调用次数]
+public class AllocationCheck {
+    private static final int[] QUANTITIES = {1, 7, 100, 999};
+    private static final int WARMUP_CALLS = 200_000;
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Map<String, Realm> realms = new HashMap<>();
+        for (String file : RealmLoader.DEFAULT_REALM_FILES) {
+            Realm realm = JsonLoader.loadRealm(file);
+            realms.put(realm.getRealmName(), realm);
+        }
+        MaterialCalculator calculator = new MaterialCalculator(realms);
+
+        List<String[]> queries = new ArrayList<>();
+        for (String realmName : calculator.getRealmNames()) {
+            for (String layerId : calculator.getLayersForRealm(realmName).keySet()) {
+                for (String itemKey : calculator.getItemsInLayer(realmName, layerId)) {
+                    queries.add(new String[] {realmName, layerId, itemKey});
+                }
+            }
+        }
+        ResultSink sink = new ResultSink();
+        int mismatches = 0;
+        for (String[] query : queries) {
+            for (int quantity : QUANTITIES) {
+                CalculationResult expected = calculator.calculate(query[0], query[1], query[2], quantity);
+                calculator.calculateInto(query[0], query[1], query[2], quantity, sink);
+                if (!matches(expected, sink)) {
+                    mismatches++;
+                    System.err.println("数值不一致: " + String.join("/", query) + " x" + quantity);
+                }
+            }
+        }
+
+        String[][] table = queries.toArray(String[][]::new);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        run(calculator, table, sink, WARMUP_CALLS);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        run(calculator, table, sink, calls);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        System.out.println("已比较 " + queries.size() * QUANTITIES.length + " 个结果，不一致 " + mismatches + " 个");
+        System.out.println(calls + " 次 calculateInto 共分配 " + allocated + " 字节");
+        if (mismatches > 0 || allocated > 0) System.exit(1);
+    }
+
+    private static void run(MaterialCalculator calculator, String[][] queries, ResultSink sink, int calls) {
+        for (int i = 0; i < calls; i++) {
+            String[] query = queries[i % queries.length];
+            calculator.calculateInto(query[0], query[1], query[2], QUANTITIES[i & 3], sink);
+        }
+    }
+
+    private static boolean matches(CalculationResult expected, ResultSink sink) {
+        if (expected.getUnrefinedCount() != sink.getUnrefinedCount()
+                || expected.getStackSize() != sink.getStackSize()
+                || expected.needsRefinement() != sink.needsRefinement()
+                || expected.hasRefineCost() != sink.hasRefineCost()
+                || expected.getRefineCount() != sink.getRefineCount()
+                || !expected.getItemName().equals(sink.getItemName())
+                || !expected.getLayerName().equals(sink.getLayerName())) {
+            return false;
+        }
+        for (int c = 0; c < sink.getCurrencyCount(); c++) {
+            int total = expected.getCurrencyTotals().getOrDefault(sink.getCurrencyCode(c), 0);
+            if (total != sink.getCurrencyTotal(c)) return false;
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package MaterialCount;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 查询与计算热点：物品列表、计算（查单位成本表）、成本表构建
+// calculateInto 应当不分配对象：用 -prof gc 运行时 gc.alloc.rate.norm 应接近 0 B/op（断言式的检查见 AllocationCheck）
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculatorBenchmark {
+    // 世界|层级|物品：普通层/Boss较多的层，需精炼/不用精炼
+    @Param({
+            "夢|layer_1|weapon_low",        // 普通层，需精炼
+            "夢|layer_1|badge",             // 普通层，不用精炼
+            "夢|layer_6|equipment_high",    // 多个来源，不用精炼
+            "深淵|layer_7|weapon_high",      // Boss较多的层，需精炼
+            "深淵|layer_7|weapon_premium"    // Boss较多的层，不用精炼
+    })
+    public String query;
+
+    @Param({"100"})
+    public int quantity;
+
+    private Map<String, Realm> realms;
+    private MaterialCalculator calculator;
+    private String realmName;
+    private String layerId;
+    private String itemKey;
+    private final ResultSink sink = new ResultSink();
+
+    @Setup
+    public void setup() {
+        realms = new HashMap<>();
+        for (String file : RealmLoader.DEFAULT_REALM_FILES) {
+            Realm realm = JsonLoader.loadRealm(file);
+            realms.put(realm.getRealmName(), realm);
+        }
+        calculator = new MaterialCalculator(realms);
+        String[] parts = query.split("\\|");
+        realmName = parts[0];
+        layerId = parts[1];
+        itemKey = parts[2];
+    }
+
+    @Benchmark
+    public List<String> getItemsInLayer() {
+        return calculator.getItemsInLayer(realmName, layerId);
+    }
+
+    @Benchmark
+    public CalculationResult calculate() {
+        return calculator.calculate(realmName, layerId, itemKey, quantity);
+    }
+
+    @Benchmark
+    public int calculateInto() {
+        calculator.calculateInto(realmName, layerId, itemKey, quantity, sink);
+        return sink.getUnrefinedCount() + sink.getRefineCount();
+    }
+
+    // 加载/重新加载时构建全部世界的单位成本表的开销
+    @Benchmark
+    public CostTable buildCostTable() {
+        return new MaterialCalculator(realms).getCostTable();
+    }
+}
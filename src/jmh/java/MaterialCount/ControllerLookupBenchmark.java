@@ -0,0 +1,64 @@
+package MaterialCount;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 界面显示名 -> 编码的查找：原先 layersMap / typeCodeMap 的线性搜索，与 ItemCatalog 的直接查找对比
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControllerLookupBenchmark {
+    private Map<String, String> layersMap;
+    private Map<String, String> typeCodeMap;
+    private ItemCatalog catalog;
+
+    @Setup
+    public void setup() {
+        MaterialCalculator calculator = new MaterialCalculator(Map.of("仙", JsonLoader.loadRealm("/fairy.json")));
+        layersMap = calculator.getLayersForRealm("仙");
+        typeCodeMap = new HashMap<>();
+        for (String item : calculator.getItemsInLayer("仙", "layer_8")) {
+            String code = item.split("_")[0];
+            typeCodeMap.put(code, calculator.convertItemType(code));
+        }
+        catalog = ItemCatalog.build(calculator, "仙");
+    }
+
+    @Benchmark
+    public String layerIdForDisplayName() {
+        return layersMap.entrySet().stream()
+                .filter(entry -> entry.getValue().equals("8c"))
+                .map(Map.Entry::getKey)
+                .findFirst().orElse(null);
+    }
+
+    @Benchmark
+    public String typeCodeForDisplayName() {
+        return typeCodeMap.entrySet().stream()
+                .filter(entry -> entry.getValue().equals("手套"))
+                .map(Map.Entry::getKey)
+                .findFirst().orElse(null);
+    }
+
+    // 层级 -> 类型 -> 等级 一次得到物品键和层级ID
+    @Benchmark
+    public String itemKeyFromCatalog() {
+        ItemCatalog.LayerEntry layer = catalog.getLayer("8c");
+        return layer.getLayerId() + layer.getType("手套").getItemKey(ItemCatalog.DEFAULT_LEVEL);
+    }
+}
\ No newline at end of file
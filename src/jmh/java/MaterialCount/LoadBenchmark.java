@@ -0,0 +1,56 @@
+package MaterialCount;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 世界数据加载：每个JSON文件单独测量
+// parseStreaming / parseGsonReflection 只比较解析（不含读取文件），后者为改用流式解析前的做法
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+    @Param({"/dream.json", "/abyss.json", "/fairy.json", "/main_world.json", "/P&H.json"})
+    public String file;
+
+    private final Gson gson = new Gson();
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        json = JsonLoader.readResource(file);
+    }
+
+    @Benchmark
+    public Realm loadRealm() {
+        return JsonLoader.loadRealm(file);
+    }
+
+    @Benchmark
+    public Realm parseStreaming() {
+        return JsonLoader.loadRealm(file, json);
+    }
+
+    @Benchmark
+    public Realm parseGsonReflection() {
+        return gson.fromJson(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), Realm.class);
+    }
+}
@@ -0,0 +1,62 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 来源组合优化：合成世界中跨层级的大型计划，分别测量新建优化器（无可复用的余量表）和复用优化器
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OptimizerBenchmark {
+    // 计划行数
+    @Param({"100", "500"})
+    public int lines;
+
+    private MaterialCalculator calculator;
+    private List<BatchRequest> plan;
+    private SourceMixOptimizer warmOptimizer;
+
+    @Setup
+    public void setup() {
+        Realm realm = SyntheticRealm.generate("合成", 8, 20, 42L);
+        calculator = new MaterialCalculator(Map.of(realm.getRealmName(), realm));
+        Random random = new Random(7);
+        plan = new ArrayList<>();
+        while (plan.size() < lines) {
+            String layerId = "layer_" + (1 + random.nextInt(8));
+            String itemKey = SyntheticRealm.ITEM_KEYS[random.nextInt(SyntheticRealm.ITEM_KEYS.length)];
+            if (realm.getLayerIndex(layerId).getSources(itemKey).isEmpty()) continue;
+            plan.add(new BatchRequest("合成", layerId, itemKey, 1 + random.nextInt(5000)));
+        }
+        warmOptimizer = new SourceMixOptimizer(calculator, Map.of("gold", 10.0), false);
+        warmOptimizer.optimize(plan);
+    }
+
+    @Benchmark
+    public SourceMixOptimizer.Plan optimizeCold() {
+        return new SourceMixOptimizer(calculator, Map.of("gold", 10.0), false).optimize(plan);
+    }
+
+    @Benchmark
+    public SourceMixOptimizer.Plan optimizeWarm() {
+        return warmOptimizer.optimize(plan);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 路线规划：合成世界中覆盖整层全部物品的计划，测量最近来源查询和整层路线随怪物数量的变化
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteBenchmark {
+    // 每层每种怪物类别的数量
+    @Param({"2", "20", "200"})
+    public int monstersPerCategory;
+
+    private RoutePlanner planner;
+    private List<String> itemKeys;
+    private final Position start = new Position(0, 64, 0);
+
+    @Setup
+    public void setup() {
+        Realm realm = SyntheticRealm.generate("合成", 8, monstersPerCategory, 42L);
+        MaterialCalculator calculator = new MaterialCalculator(Map.of(realm.getRealmName(), realm));
+        planner = new RoutePlanner(calculator);
+        itemKeys = new ArrayList<>(calculator.getItemsInLayer("合成", "layer_4"));
+    }
+
+    @Benchmark
+    public DropSource nearestSource() {
+        return planner.nearestSource("合成", "layer_4", itemKeys.get(0), start);
+    }
+
+    @Benchmark
+    public RoutePlanner.Route planWholeLayer() {
+        return planner.plan("合成", "layer_4", itemKeys, start);
+    }
+}
\ No newline at end of file
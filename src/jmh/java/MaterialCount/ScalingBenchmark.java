@@ -0,0 +1,66 @@
+package MaterialCount;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 合成大型世界：测量索引构建、物品列表、计算和成本表构建随每层怪物数量的变化
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalingBenchmark {
+    // 每层每种怪物类别的数量
+    @Param({"2", "20", "200", "2000"})
+    public int monstersPerCategory;
+
+    private Realm realm;
+    private MaterialCalculator calculator;
+    private String itemKey;
+
+    @Setup
+    public void setup() {
+        realm = SyntheticRealm.generate("合成", 8, monstersPerCategory, 42L);
+        calculator = new MaterialCalculator(Map.of(realm.getRealmName(), realm));
+        // 选取该层实际存在的物品，避免随机数据中缺失物品导致异常
+        itemKey = realm.getLayerIndex("layer_4").getItemKeys().iterator().next();
+    }
+
+    // 世界已冻结，不重建它的索引，只对同样的层级数据构建新的索引
+    @Benchmark
+    public Map<String, LayerIndex> buildIndexes() {
+        Map<String, LayerIndex> indexes = new HashMap<>();
+        realm.getLayers().forEach((layerId, layer) -> indexes.put(layerId, LayerIndex.build(layer)));
+        return indexes;
+    }
+
+    @Benchmark
+    public List<String> getItemsInLayer() {
+        return calculator.getItemsInLayer("合成", "layer_4");
+    }
+
+    @Benchmark
+    public CalculationResult calculate() {
+        return calculator.calculate("合成", "layer_4", itemKey, 100);
+    }
+
+    @Benchmark
+    public CostTable buildCostTable() {
+        return new MaterialCalculator(Map.of(realm.getRealmName(), realm)).getCostTable();
+    }
+}
@@ -0,0 +1,138 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// SourceMixOptimizer 的交叉验证：随机生成来源组合（不同的每次精炼材料数和货币成本），
+// 把优化结果与对整个材料范围做的朴素动态规划比较，并确认不比 calculate 的全来源分摊更贵；
+// 任何不一致都以非零状态退出
+//
+// 用法: java -cp <类路径> MaterialCount.SourceMixCheck [来源组合数]
+public class SourceMixCheck {
+    private static final String ITEM = "weapon_high";
+    private static final String[] CURRENCIES = {"dream_coin", "silver", "copper", "gold"};
+    private static final Map<String, Double> WEIGHTS = Map.of("gold", 10.0, "silver", 2.5);
+    private static final double EPSILON = 1e-6;
+
+    public static void main(String[] args) {
+        int sets = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int checked = 0;
+        int failures = 0;
+        int mixed = 0;
+        for (int seed = 1; seed <= sets; seed++) {
+            Random random = new Random(seed);
+            Realm realm = randomRealm(random);
+            MaterialCalculator calculator = new MaterialCalculator(Map.of(realm.getRealmName(), realm));
+            for (boolean dreamCoinOnly : new boolean[] {false, true}) {
+                SourceMixOptimizer optimizer = new SourceMixOptimizer(calculator, WEIGHTS, dreamCoinOnly);
+                for (int q = 0; q < 5; q++) {
+                    BatchRequest line = new BatchRequest(realm.getRealmName(), "layer_1", ITEM, 1 + random.nextInt(300));
+                    String error = check(calculator, optimizer, line, dreamCoinOnly);
+                    checked++;
+                    if (error == null && usesSeveralSources(optimizer, line)) mixed++;
+                    if (error != null) {
+                        failures++;
+                        System.err.println("种子 " + seed + ", 数量 " + line.getQuantity() + ": " + error);
+                    }
+                }
+            }
+        }
+        System.out.println("已检查 " + checked + " 行（" + sets + " 组来源，其中 " + mixed + " 行分配到多个来源），失败 " + failures + " 行");
+        if (failures > 0) System.exit(1);
+    }
+
+    // 一层 1~5 个怪物，都掉落同一物品，每次精炼材料数和货币成本各不相同
+    private static Realm randomRealm(Random random) {
+        Map<String, Monster> monsters = new LinkedHashMap<>();
+        int count = 1 + random.nextInt(5);
+        for (int i = 1; i <= count; i++) {
+            CurrencyCost cost = new CurrencyCost();
+            cost.setRefineCostMaterial(1 + random.nextInt(40));
+            Map<String, Integer> currency = new LinkedHashMap<>();
+            currency.put(CURRENCIES[random.nextInt(CURRENCIES.length)], 1 + random.nextInt(50));
+            if (random.nextInt(4) == 0) currency.put(CURRENCIES[random.nextInt(CURRENCIES.length)], 1 + random.nextInt(50));
+            cost.setRefineCostCurrency(currency);
+            Monster monster = new Monster();
+            monster.setDrops(Map.of(ITEM, String.valueOf(1 + random.nextInt(20))));
+            monster.setPosition("0, 64, 0");
+            monster.setCurrencyCost(cost);
+            monsters.put("怪物" + i, monster);
+        }
+        Layer layer = new Layer();
+        layer.setSmallMonsters(monsters);
+        Realm realm = new Realm();
+        realm.setRealmName("验证");
+        realm.setLayers(Map.of("layer_1", layer));
+        return realm;
+    }
+
+    private static String check(MaterialCalculator calculator, SourceMixOptimizer optimizer, BatchRequest line,
+                                boolean dreamCoinOnly) {
+        List<DropSource> sources = calculator.getRealm(line.getRealmName()).getLayerIndex(line.getLayerId()).getSources(ITEM);
+        List<int[]> materials = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        double allSourcesCost = 0;
+        for (DropSource source : sources) {
+            Map<String, Integer> currency = source.getMonster().getCurrencyCost().getRefineCostCurrency();
+            double cost = weightedCost(currency);
+            allSourcesCost += cost;
+            if (dreamCoinOnly && !Collections.singleton(SourceMixOptimizer.DREAM_COIN).containsAll(currency.keySet())) continue;
+            materials.add(new int[] {source.getMonster().getCurrencyCost().getRefineCostMaterial()});
+            costs.add(cost);
+        }
+
+        SourceMixOptimizer.LineMix mix;
+        try {
+            mix = optimizer.optimize(line);
+        } catch (IllegalArgumentException e) {
+            return materials.isEmpty() ? null : "有候选来源时不应失败: " + e.getMessage();
+        }
+        int material = mix.getMaterial();
+        if (materials.isEmpty() && material > 0) return "没有候选来源时应当失败";
+
+        CalculationResult result = calculator.calculate(line.getRealmName(), line.getLayerId(), ITEM, line.getQuantity());
+        long expectedMaterial = (long) result.getRefineCount() * sources.stream()
+                .mapToInt(source -> source.getMonster().getCurrencyCost().getRefineCostMaterial()).sum();
+        if (material != expectedMaterial) return "需精炼材料 " + material + "，calculate 为 " + expectedMaterial;
+
+        long covered = mix.getAllocations().stream().mapToLong(SourceMixOptimizer.Allocation::material).sum();
+        if (covered < material) return "只覆盖了 " + covered + " / " + material + " 个材料";
+        if (material == 0) return mix.getAllocations().isEmpty() ? null : "不需要精炼时不应分配";
+
+        // 朴素动态规划：对 0..material 的每个余量求最低成本
+        double[] minCost = new double[material + 1];
+        for (int r = 1; r <= material; r++) {
+            minCost[r] = Double.MAX_VALUE;
+            for (int i = 0; i < materials.size(); i++) {
+                minCost[r] = Math.min(minCost[r], costs.get(i) + minCost[Math.max(0, r - materials.get(i)[0])]);
+            }
+        }
+        if (Math.abs(mix.getWeightedCost() - minCost[material]) > EPSILON) {
+            return "优化成本 " + mix.getWeightedCost() + "，朴素动态规划为 " + minCost[material];
+        }
+        if (!dreamCoinOnly && mix.getWeightedCost() > result.getRefineCount() * allSourcesCost + EPSILON) {
+            return "比 calculate 的全来源分摊更贵";
+        }
+        return null;
+    }
+
+    private static boolean usesSeveralSources(SourceMixOptimizer optimizer, BatchRequest line) {
+        try {
+            return optimizer.optimize(line).getAllocations().size() > 1;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static double weightedCost(Map<String, Integer> currency) {
+        double total = 0;
+        for (Map.Entry<String, Integer> entry : currency.entrySet()) {
+            total += WEIGHTS.getOrDefault(entry.getKey(), 1.0) * entry.getValue();
+        }
+        return total;
+    }
+}
\ No newline at end of file
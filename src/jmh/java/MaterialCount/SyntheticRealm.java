@@ -0,0 +1,58 @@
+package MaterialCount;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+// 合成大型世界数据，用于测量性能随怪物数量的变化
+public class SyntheticRealm {
+    static final String[] ITEM_KEYS = {
+            "weapon_low", "weapon_mid", "weapon_high", "weapon_premium", "weapon_extreme_plus",
+            "equipment_low", "equipment_mid", "equipment_high", "equipment_premium",
+            "gem", "glove", "necklace", "badge"
+    };
+    private static final String[] CURRENCIES = {"dream_coin", "silver", "copper", "gold"};
+
+    // 生成指定层数的世界，每层每种怪物类别各有 monstersPerCategory 只怪物
+    public static Realm generate(String realmName, int layerCount, int monstersPerCategory, long seed) {
+        Random random = new Random(seed);
+        Map<String, Layer> layers = new LinkedHashMap<>();
+        for (int l = 1; l <= layerCount; l++) {
+            Layer layer = new Layer();
+            layer.setSmallMonsters(monsters(random, realmName + l + "c小怪", monstersPerCategory));
+            layer.setEliteSmallMonsters(monsters(random, realmName + l + "c精英小怪", monstersPerCategory));
+            layer.setEliteMonsters(monsters(random, realmName + l + "c精英怪", monstersPerCategory));
+            layer.setBoss(monsters(random, realmName + l + "cBoss", monstersPerCategory));
+            layers.put("layer_" + l, layer);
+        }
+        Realm realm = new Realm();
+        realm.setRealmName(realmName);
+        realm.setLayers(layers);
+        return realm;
+    }
+
+    private static Map<String, Monster> monsters(Random random, String prefix, int count) {
+        Map<String, Monster> monsters = new LinkedHashMap<>();
+        for (int i = 1; i <= count; i++) {
+            Map<String, String> drops = new LinkedHashMap<>();
+            int dropCount = 1 + random.nextInt(2);
+            for (int d = 0; d < dropCount; d++) {
+                int quantity = 8 << random.nextInt(4);
+                drops.put(ITEM_KEYS[random.nextInt(ITEM_KEYS.length)], quantity + (random.nextBoolean() ? "" : "N"));
+            }
+            Map<String, Integer> currency = new LinkedHashMap<>();
+            currency.put(CURRENCIES[random.nextInt(CURRENCIES.length)], 1 + random.nextInt(8));
+
+            CurrencyCost cost = new CurrencyCost();
+            cost.setRefineCostMaterial(16);
+            cost.setRefineCostCurrency(currency);
+
+            Monster monster = new Monster();
+            monster.setDrops(drops);
+            monster.setPosition(random.nextInt(2000) - 1000 + ", " + (40 + random.nextInt(120)) + ", " + (random.nextInt(2000) - 1000));
+            monster.setCurrencyCost(cost);
+            monsters.put(prefix + i, monster);
+        }
+        return monsters;
+    }
+}
@@ -0,0 +1,243 @@
+package MaterialCount;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// 无界面批量计算入口：从标准输入或文件逐行读取请求（CSV 或 JSON Lines），流式输出结果
+//
+// 用法: java -m MaterialCount/MaterialCount.BatchCli [--input 文件] [--output 文件]
+//                                                   [--format csv|jsonl] [--parallelism N]
+// CSV 每行: 世界,层级,物品键,数量   例如: 夢,layer_3,weapon_high,30（层级也可写作 3c）
+// JSONL 每行: {"realm":"夢","layer":"layer_3","item":"weapon_high","quantity":30}
+public class BatchCli {
+    // 每个并行线程一次处理的行数，决定内存中最多保留的请求数
+    private static final int LINES_PER_WORKER = 256;
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+    private final MaterialCalculator calculator;
+    private final boolean jsonLines;
+    private final int parallelism;
+    private long processed;
+    private long failed;
+
+    public BatchCli(MaterialCalculator calculator, boolean jsonLines, int parallelism) {
+        this.calculator = calculator;
+        this.jsonLines = jsonLines;
+        this.parallelism = parallelism;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String input = null;
+        String output = null;
+        String format = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--input" -> input = requireValue(args, ++i);
+                case "--output" -> output = requireValue(args, ++i);
+                case "--format" -> format = requireValue(args, ++i);
+                case "--parallelism" -> parallelism = Integer.parseInt(requireValue(args, ++i));
+                default -> {
+                    System.err.println("未知参数: " + args[i]);
+                    System.err.println("用法: BatchCli [--input 文件] [--output 文件] [--format csv|jsonl] [--parallelism N]");
+                    System.exit(2);
+                }
+            }
+        }
+        if (parallelism <= 0) throw new IllegalArgumentException("并行度必须为正数: " + parallelism);
+        if (format == null) {
+            format = input != null && (input.endsWith(".jsonl") || input.endsWith(".json")) ? "jsonl" : "csv";
+        }
+        if (!format.equals("csv") && !format.equals("jsonl")) {
+            throw new IllegalArgumentException("不支持的格式: " + format);
+        }
+
+        // 结果只写入原标准输出，加载过程中的日志改到标准错误
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+
+        MaterialCalculator calculator = new MaterialCalculator();
+        RealmLoader realmLoader = new RealmLoader(calculator, RealmLoader.DEFAULT_REALM_FILES);
+        realmLoader.loadAll().join();
+        realmLoader.getFailures().forEach((file, message) -> System.err.println("世界数据加载失败: " + file + ": " + message));
+
+        BatchCli cli = new BatchCli(calculator, format.equals("jsonl"), parallelism);
+        try (BufferedReader reader = input == null
+                     ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                     : Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+             Writer writer = output == null
+                     ? new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8))
+                     : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            long start = System.nanoTime();
+            cli.run(reader, writer);
+            writer.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("共处理 %d 行，失败 %d 行，耗时 %.3f 秒，%.0f 行/秒%n",
+                    cli.processed, cli.failed, seconds, seconds > 0 ? cli.processed / seconds : 0);
+        }
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) throw new IllegalArgumentException("参数缺少值: " + args[index - 1]);
+        return args[index];
+    }
+
+    // 按块读取、并行计算、按输入顺序输出，内存中最多保留一块请求
+    public void run(BufferedReader reader, Writer writer) throws Exception {
+        int chunkSize = parallelism * LINES_PER_WORKER;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<InputLine> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#") || isCsvHeader(trimmed)) continue;
+                chunk.add(parseLine(lineNumber, trimmed));
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, writer, pool);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) processChunk(chunk, writer, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void processChunk(List<InputLine> chunk, Writer writer, ForkJoinPool pool) throws Exception {
+        List<BatchRequest> requests = new ArrayList<>();
+        for (InputLine line : chunk) {
+            if (line.request != null) requests.add(line.request);
+        }
+        // calculateBatch 的并行流会在所在的 ForkJoinPool 中执行，以此控制并行度
+        BatchResult batch = pool.submit(() -> calculator.calculateBatch(requests)).get();
+
+        int next = 0;
+        for (InputLine line : chunk) {
+            CalculationResult result = null;
+            String error = line.error;
+            if (line.request != null) {
+                result = batch.getResults().get(next);
+                error = batch.getErrors().get(next);
+                next++;
+            }
+            processed++;
+            if (error != null) failed++;
+            writer.write(jsonLines ? toJson(line, result, error) : toCsv(line, result, error));
+            writer.write('\n');
+        }
+    }
+
+    private boolean isCsvHeader(String line) {
+        return !jsonLines && line.toLowerCase().startsWith("realm,");
+    }
+
+    private InputLine parseLine(long lineNumber, String line) {
+        try {
+            String realm;
+            String layer;
+            String item;
+            int quantity;
+            if (jsonLines) {
+                JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+                realm = requiredField(json, "realm").getAsString();
+                layer = requiredField(json, "layer").getAsString();
+                item = requiredField(json, "item").getAsString();
+                quantity = requiredField(json, "quantity").getAsInt();
+            } else {
+                String[] fields = line.split(",");
+                if (fields.length != 4) throw new IllegalArgumentException("应为4列: 世界,层级,物品键,数量");
+                realm = fields[0].trim();
+                layer = fields[1].trim();
+                item = fields[2].trim();
+                quantity = Integer.parseInt(fields[3].trim());
+            }
+            if (quantity <= 0) throw new IllegalArgumentException("数量必须为正数: " + quantity);
+            return new InputLine(lineNumber, new BatchRequest(realm, MaterialCalculator.normalizeLayer(layer), item, quantity), null);
+        } catch (Exception e) {
+            return new InputLine(lineNumber, null, "无法解析: " + e.getMessage());
+        }
+    }
+
+    private static JsonElement requiredField(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        if (value == null || value.isJsonNull()) throw new IllegalArgumentException("缺少字段: " + name);
+        return value;
+    }
+
+    private String toCsv(InputLine line, CalculationResult result, String error) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(line.lineNumber).append(',');
+        if (line.request != null) {
+            BatchRequest request = line.request;
+            sb.append(request.getRealmName()).append(',').append(request.getLayerId()).append(',')
+              .append(request.getItemKey()).append(',').append(request.getQuantity());
+        } else {
+            sb.append(",,,");
+        }
+        sb.append(',');
+        if (result != null) {
+            sb.append(result.getUnrefinedCount()).append(',').append(result.getRefineCount()).append(',');
+            StringBuilder currency = new StringBuilder();
+            result.getCurrencyTotals().forEach((type, amount) -> {
+                if (currency.length() > 0) currency.append(';');
+                currency.append(type).append(':').append(amount);
+            });
+            sb.append(currency).append(',');
+        } else {
+            sb.append(",,,").append(error == null ? "" : error.replace(',', ' '));
+        }
+        return sb.toString();
+    }
+
+    private String toJson(InputLine line, CalculationResult result, String error) {
+        JsonObject json = new JsonObject();
+        json.addProperty("line", line.lineNumber);
+        if (line.request != null) {
+            json.addProperty("realm", line.request.getRealmName());
+            json.addProperty("layer", line.request.getLayerId());
+            json.addProperty("item", line.request.getItemKey());
+            json.addProperty("quantity", line.request.getQuantity());
+        }
+        if (result != null) {
+            json.addProperty("unrefined", result.getUnrefinedCount());
+            json.addProperty("refineCount", result.getRefineCount());
+            JsonObject currency = new JsonObject();
+            result.getCurrencyTotals().forEach(currency::addProperty);
+            json.add("currency", currency);
+        } else {
+            json.addProperty("error", error);
+        }
+        return gson.toJson(json);
+    }
+
+    // 内部数据类：输入行（解析失败时 request 为 null）
+    private static class InputLine {
+        final long lineNumber;
+        final BatchRequest request;
+        final String error;
+
+        InputLine(long lineNumber, BatchRequest request, String error) {
+            this.lineNumber = lineNumber;
+            this.request = request;
+            this.error = error;
+        }
+    }
+}
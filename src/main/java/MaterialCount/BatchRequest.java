@@ -0,0 +1,22 @@
+package MaterialCount;
+
+// 批量计算中的一行请求：世界、层级、物品键和数量
+public class BatchRequest {
+    private final String realmName;
+    private final String layerId;
+    private final String itemKey;
+    private final int quantity;
+
+    public BatchRequest(String realmName, String layerId, String itemKey, int quantity) {
+        this.realmName = realmName;
+        this.layerId = layerId;
+        this.itemKey = itemKey;
+        this.quantity = quantity;
+    }
+
+    // Getters
+    public String getRealmName() { return realmName; }
+    public String getLayerId() { return layerId; }
+    public String getItemKey() { return itemKey; }
+    public int getQuantity() { return quantity; }
+}
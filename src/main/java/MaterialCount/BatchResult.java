@@ -0,0 +1,39 @@
+package MaterialCount;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 批量计算结果：逐行结果 + 所有行合并后的总计
+public class BatchResult {
+    private final List<CalculationResult> results;
+    private final List<String> errors;
+    private final Map<String, Long> materialTotals = new LinkedHashMap<>();
+    private final Map<String, Long> currencyTotals = new LinkedHashMap<>();
+    private long refineCount;
+
+    public BatchResult(List<CalculationResult> results, List<String> errors) {
+        this.results = Collections.unmodifiableList(results);
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    // 将一行结果合并到总计中；不同世界或层级的同名物品掉落和堆叠规则不同，材料分开汇总
+    void add(BatchRequest request, CalculationResult result) {
+        String key = request.getRealmName() + "/" + request.getLayerId() + "/" + request.getItemKey();
+        materialTotals.merge(key, (long) result.getUnrefinedCount(), Long::sum);
+        refineCount += result.getRefineCount();
+        result.getCurrencyTotals().forEach((type, amount) -> currencyTotals.merge(type, (long) amount, Long::sum));
+    }
+
+    // 逐行结果，与请求顺序一致；计算失败的行为null
+    public List<CalculationResult> getResults() { return results; }
+    // 逐行错误信息，与请求顺序一致；成功的行为null
+    public List<String> getErrors() { return errors; }
+    // 按"世界/层级/物品键"汇总的未精炼材料总数
+    public Map<String, Long> getMaterialTotals() { return Collections.unmodifiableMap(materialTotals); }
+    // 按货币类型汇总的精炼货币总数
+    public Map<String, Long> getCurrencyTotals() { return Collections.unmodifiableMap(currencyTotals); }
+    // 精炼总次数
+    public long getRefineCount() { return refineCount; }
+}
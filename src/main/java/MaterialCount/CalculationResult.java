@@ -1,17 +1,28 @@
 package MaterialCount;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+// 计算结果只保存数值，显示用的文字（如"3组+12个"、"夢元: 40, 銀元: 6"）在读取时才生成
+// 批量计算和服务接口只读取数值，不产生任何字符串
 public class CalculationResult {
     private String realmName;
     private String layerName;
     private String itemName;
     private int quantity;
     private List<MaterialSource> sources;
-    private String unrefinedTotal;
-    private String refineMaterialPerTime;
-    private String currencyCost;
-    private String perRefinementCurrencyCost;
+    // 未精炼材料总数及每组堆叠数量（16g物品每组16个，否则64个）
+    private int unrefinedCount;
+    private int stackSize = 64;
+    private boolean needsRefinement;
+    // 是否有精炼成本；没有时精炼相关的显示文字为null
+    private boolean hasRefineCost;
+    private int refineCount;
+    // 每次精炼的货币成本（货币编码 -> 数量）
+    private Map<String, Integer> perRefinementCurrency = Collections.emptyMap();
+    private Map<String, Integer> currencyTotals;
 
     // Getters and setters
     public String getRealmName() { return realmName; }
@@ -24,23 +35,74 @@ public class CalculationResult {
     public void setQuantity(int quantity) { this.quantity = quantity; }
     public List<MaterialSource> getSources() { return sources; }
     public void setSources(List<MaterialSource> sources) { this.sources = sources; }
-    public String getUnrefinedTotal() { return unrefinedTotal; }
-    public void setUnrefinedTotal(String unrefinedTotal) { this.unrefinedTotal = unrefinedTotal; }
-    public String getRefineMaterialPerTime() { return refineMaterialPerTime; }
-    public void setRefineMaterialPerTime(String refineMaterialPerTime) { this.refineMaterialPerTime = refineMaterialPerTime; }
-    public String getCurrencyCost() {
-        return currencyCost;
+    public int getUnrefinedCount() { return unrefinedCount; }
+    public void setUnrefinedCount(int unrefinedCount) { this.unrefinedCount = unrefinedCount; }
+    public int getStackSize() { return stackSize; }
+    public void setStackSize(int stackSize) { this.stackSize = stackSize; }
+    public boolean needsRefinement() { return needsRefinement; }
+    public void setNeedsRefinement(boolean needsRefinement) { this.needsRefinement = needsRefinement; }
+    public boolean hasRefineCost() { return hasRefineCost; }
+    public void setHasRefineCost(boolean hasRefineCost) { this.hasRefineCost = hasRefineCost; }
+    public int getRefineCount() { return refineCount; }
+    public void setRefineCount(int refineCount) {
+        this.refineCount = refineCount;
+        this.currencyTotals = null;
+    }
+    public Map<String, Integer> getPerRefinementCurrency() { return perRefinementCurrency; }
+    public void setPerRefinementCurrency(Map<String, Integer> perRefinementCurrency) {
+        this.perRefinementCurrency = perRefinementCurrency;
+        this.currencyTotals = null;
+    }
+
+    // 总货币成本 = 单次精炼成本 × 精炼次数，首次读取时计算
+    public Map<String, Integer> getCurrencyTotals() {
+        if (currencyTotals == null) {
+            if (perRefinementCurrency.isEmpty()) {
+                currencyTotals = Collections.emptyMap();
+            } else {
+                Map<String, Integer> totals = new LinkedHashMap<>();
+                perRefinementCurrency.forEach((type, amount) -> totals.put(type, amount * refineCount));
+                currencyTotals = Collections.unmodifiableMap(totals);
+            }
+        }
+        return currencyTotals;
+    }
+
+    // 以下为显示文字，按需生成
+
+    // 未精炼材料总量，如"3组+12个 (需精炼)"
+    public String getUnrefinedTotal() {
+        return formatStacks(unrefinedCount, stackSize) + (needsRefinement ? " (需精炼)" : " (不用精炼)");
+    }
+
+    // 已精炼材料（精炼次数按堆叠拆分），无精炼成本时为null
+    public String getRefineMaterialPerTime() {
+        return hasRefineCost ? formatStacks(refineCount, stackSize) : null;
     }
 
-    public void setCurrencyCost(String currencyCost) {
-        this.currencyCost = currencyCost;
+    // 总货币成本，如"夢元: 40, 銀元: 6"，无精炼成本时为null
+    public String getCurrencyCost() {
+        return hasRefineCost ? formatCurrency(perRefinementCurrency, refineCount) : null;
     }
 
+    // 单次精炼货币成本，无精炼成本时为null
     public String getPerRefinementCurrencyCost() {
-        return perRefinementCurrencyCost;
+        return hasRefineCost ? formatCurrency(perRefinementCurrency, 1) : null;
+    }
+
+    // 按堆叠拆分为组和剩余数量
+    static String formatStacks(int count, int stackSize) {
+        return count / stackSize + "组+" + count % stackSize + "个";
     }
 
-    public void setPerRefinementCurrencyCost(String perRefinementCurrencyCost) {
-        this.perRefinementCurrencyCost = perRefinementCurrencyCost;
+    private static String formatCurrency(Map<String, Integer> currency, int multiplier) {
+        StringBuilder sb = new StringBuilder();
+        currency.forEach((type, amount) -> {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(Currency.displayNameOf(type)).append(": ").append(amount * multiplier);
+        });
+        return sb.toString();
     }
 }
\ No newline at end of file
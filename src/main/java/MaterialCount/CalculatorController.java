@@ -1,17 +1,30 @@
 package MaterialCount;
 
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
+import javafx.util.Duration;
 
 public class CalculatorController {
     @FXML private ComboBox<String> realmComboBox;
@@ -19,255 +32,282 @@ public class CalculatorController {
     @FXML private ComboBox<String> itemTypeComboBox;
     @FXML private ComboBox<String> itemLevelComboBox;
     @FXML private TextField quantityField;
+    @FXML private CheckBox liveCalculateCheckBox;
     @FXML private TextArea resultArea;
+    @FXML private TableView<ResultRow> sourceTable;
+    @FXML private Tab curveTab;
+
+    // 输入停顿多久后自动重新计算
+    private static final Duration LIVE_CALCULATE_DELAY = Duration.millis(300);
 
     private MaterialCalculator calculator;
-    private Map<String, String> layersMap;
+    private RealmLoader realmLoader;
+    // 各世界的选项目录，下拉框只做一次查找
+    private final Map<String, ItemCatalog> catalogs = new HashMap<>();
+
+    // 计算和结果格式化在后台执行，新的计算会取消尚未完成的上一次计算
+    private final ExecutorService calculationExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Task<ResultView> currentCalculation;
+    private final PauseTransition liveCalculateDelay = new PauseTransition(LIVE_CALCULATE_DELAY);
+    private CostCurvePane curvePane;
+    // 精炼货币成本列：每种货币一个子列，不同货币不相加，各自按数值排序
+    private final TableColumn<ResultRow, Void> currencyColumn = new TableColumn<>("精煉貨幣成本");
+    private final Set<String> currencyColumnCodes = new HashSet<>();
 
-    public void setCalculator(MaterialCalculator calculator) {
+    public void setCalculator(MaterialCalculator calculator, RealmLoader realmLoader) {
         this.calculator = calculator;
+        this.realmLoader = realmLoader;
+        initializeSourceTable();
+        curvePane = new CostCurvePane(calculator, this::currentSelection, calculationExecutor);
+        curveTab.setContent(curvePane);
         initializeRealms();
     }
 
-    // 初始化世界选择
+    // 材料来源表格：只渲染可见的行，各列可点击表头排序（数量和货币按数值排序）
+    private void initializeSourceTable() {
+        for (Currency currency : Currency.values()) {
+            addCurrencyColumn(currency.getCode());
+        }
+        sourceTable.getColumns().setAll(List.of(
+                column("怪物", ResultRow::getMonsterName, 160),
+                column("怪物位置", ResultRow::getPosition, 160),
+                column("每件數量", ResultRow::getQuantityPerItem, 80),
+                column("共需數量", ResultRow::getTotalQuantity, 90),
+                currencyColumn));
+        sourceTable.setPlaceholder(new Label("尚無計算結果"));
+    }
+
+    // 不需要该货币的行为空，排序时排在最前
+    private void addCurrencyColumn(String code) {
+        if (currencyColumnCodes.add(code)) {
+            currencyColumn.getColumns().add(column(Currency.displayNameOf(code), row -> row.getRefineCurrency().get(code), 70));
+        }
+    }
+
+    private static <T> TableColumn<ResultRow, T> column(String title, Function<ResultRow, T> value, double width) {
+        TableColumn<ResultRow, T> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+        column.setPrefWidth(width);
+        return column;
+    }
+
+    // 初始化世界选择（世界名称在后台读取，完成后再填充）
     private void initializeRealms() {
-        ObservableList<String> realmNames = FXCollections.observableArrayList(calculator.getRealmNames());
-        realmComboBox.setItems(realmNames);
+        resultArea.setText("正在讀取世界列表...");
+        realmLoader.scanRealmNames().whenComplete((names, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                resultArea.setText("世界列表讀取失敗: " + error.getMessage());
+                return;
+            }
+            realmComboBox.setItems(FXCollections.observableArrayList(names));
+            showLoadFailures();
+        }));
+        // 每个下拉框只注册一次监听
         realmComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null) {
-                initializeLayers(newVal);
+                loadRealm(newVal);
             }
         });
+        layerComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> layerChanged(newVal));
+        itemTypeComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> itemTypeChanged(newVal));
+        initializeLiveCalculation();
     }
 
-    // 初始化层级选择
-    private void initializeLayers(String realmName) {
-        layersMap = calculator.getLayersForRealm(realmName);
-        ObservableList<String> layerNames = FXCollections.observableArrayList(layersMap.values());
-        layerComboBox.setItems(layerNames);
-        layerComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal != null) {
-                String layerId = layersMap.entrySet().stream()
-                        .filter(entry -> entry.getValue().equals(newVal))
-                        .map(Map.Entry::getKey)
-                        .findFirst().orElse(null);
-                if (layerId != null) {
-                    initializeItems(realmName, layerId);
-                }
-            }
-        });
+    // 即时计算：勾选后输入数量或切换等级时，停顿片刻自动计算，快速输入只计算一次
+    private void initializeLiveCalculation() {
+        liveCalculateDelay.setOnFinished(event -> calculate(true));
+        quantityField.textProperty().addListener((obs, oldVal, newVal) -> scheduleLiveCalculation());
+        itemLevelComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> scheduleLiveCalculation());
+        liveCalculateCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> scheduleLiveCalculation());
     }
 
-    // 初始化物品选择
-    private Map<String, String> typeCodeMap = new HashMap<>();
-    private Map<String, String> levelCodeMap = new HashMap<>();
-
-    private void initializeItems(String realmName, String layerId) {
-        // 构建英文类型码到中文名称的映射
-        typeCodeMap = calculator.getItemsInLayer(realmName, layerId).stream()
-            .map(item -> item.split("_")[0])
-            .distinct()
-            .collect(Collectors.toMap(
-                code -> code,
-                code -> calculator.convertItemType(code)
-            ));
-        // 添加缺失的特殊类型映射
-        if (!typeCodeMap.containsKey("gem")) typeCodeMap.put("gem", "宝石");
-        if (!typeCodeMap.containsKey("badge")) typeCodeMap.put("badge", "徽章");
-        if (!typeCodeMap.containsKey("glove")) typeCodeMap.put("glove", "手套");
-        if (!typeCodeMap.containsKey("necklace")) typeCodeMap.put("necklace", "项链");
-
-        // 显示中文名称
-        ObservableList<String> itemTypes = FXCollections.observableArrayList(typeCodeMap.values());
-        itemTypeComboBox.setItems(itemTypes);
-        itemTypeComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal != null) {
-                // 查找对应的英文类型码
-                String englishType = typeCodeMap.entrySet().stream()
-                    .filter(entry -> entry.getValue().equals(newVal))
-                    .map(Map.Entry::getKey)
-                    .findFirst().orElse(null);
-                if (englishType != null) {
-                    initializeLevels(realmName, layerId, englishType);
-                }
-            }
-        });
+    private void scheduleLiveCalculation() {
+        if (liveCalculateCheckBox.isSelected()) {
+            liveCalculateDelay.playFromStart();
+        } else {
+            liveCalculateDelay.stop();
+        }
     }
 
-    private void initializeLevels(String realmName, String layerId, String itemType) {
-        levelCodeMap.clear(); // 清空之前的映射
-        
-        // 获取当前层级中实际存在的等级
-        Set<String> existingLevels = calculator.getItemsInLayer(realmName, layerId).stream()
-                .filter(item -> item.startsWith(itemType))
-                .map(item -> {
-                    if (item.contains("_")) {
-                        return item.split("_", 2)[1];
+    // 首次选择世界时才加载其层级数据，并在后台构建该世界的选项目录；之后再选择时直接使用目录
+    private void loadRealm(String realmName) {
+        if (catalogs.containsKey(realmName)) {
+            initializeLayers(realmName);
+            return;
+        }
+        layerComboBox.setItems(FXCollections.observableArrayList());
+        resultArea.setText("正在載入世界: " + realmName + "...");
+        realmLoader.load(realmName)
+                .thenApply(realm -> ItemCatalog.build(calculator, realmName))
+                .whenComplete((catalog, error) -> Platform.runLater(() -> {
+                    if (error == null) catalogs.putIfAbsent(realmName, catalog);
+                    // 加载期间用户可能已切换到其他世界
+                    if (!realmName.equals(realmComboBox.getValue())) return;
+                    if (error != null) {
+                        showLoadFailures();
+                        return;
                     }
-                    return "";
-                })
-                .filter(level -> !level.isEmpty())
-                .collect(Collectors.toSet());
-        
-        // 创建ObservableList存储所有等级选项
-        ObservableList<String> levels = FXCollections.observableArrayList();
-        
-        // 根据物品类型添加所有可能的等级选项
-        if ("weapon".equals(itemType)) {
-            // 武器类型应包含所有等级选项：下、中、上、極、極+
-            addLevelIfAvailable(levels, "low", "下", existingLevels);
-            addLevelIfAvailable(levels, "mid", "中", existingLevels);
-            addLevelIfAvailable(levels, "high", "上", existingLevels);
-            addLevelIfAvailable(levels, "premium", "極", existingLevels);
-            addLevelIfAvailable(levels, "extreme_plus", "極+", existingLevels);
-        } else if ("equipment".equals(itemType)) {
-            // 装备类型应包含所有等级选项：下、中、上、極、極+
-            addLevelIfAvailable(levels, "low", "下", existingLevels);
-            addLevelIfAvailable(levels, "mid", "中", existingLevels);
-            addLevelIfAvailable(levels, "high", "上", existingLevels);
-            addLevelIfAvailable(levels, "premium", "極", existingLevels);
-            addLevelIfAvailable(levels, "extreme_plus", "極+", existingLevels);
+                    resultArea.clear();
+                    initializeLayers(realmName);
+                }));
+    }
+
+    // 世界数据热重载后刷新：已加载的世界重建目录，当前选中的世界重新填充层级
+    // 未加载的世界只更新名称，目录留到首次选择时再构建；改名后旧名称从列表和目录中移除
+    public void realmReloaded(String realmName) {
+        Set<String> knownNames = realmLoader.getRealmNames();
+        realmComboBox.getItems().removeIf(name -> !knownNames.contains(name));
+        catalogs.keySet().removeIf(name -> !knownNames.contains(name));
+        if (!realmComboBox.getItems().contains(realmName)) {
+            realmComboBox.getItems().add(realmName);
+        }
+        if (calculator.getRealm(realmName) != null) {
+            catalogs.put(realmName, ItemCatalog.build(calculator, realmName));
         } else {
-            // 其他物品类型保持原有逻辑
-            calculator.getItemsInLayer(realmName, layerId).stream()
-                .filter(item -> item.startsWith(itemType))
-                .map(item -> {
-                    String levelPart = "";
-                    if (item.contains("_")) {
-                        levelPart = item.split("_", 2)[1];
-                    }
-                    
-                    String converted;
-                    if (levelPart.isEmpty()) {
-                        converted = "";
-                    } else {
-                        converted = calculator.convertLevel(levelPart);
-                        levelCodeMap.put(converted, levelPart);
-                    }
-                    
-                    if (converted == null || converted.isEmpty()) {
-                        converted = levelPart;
-                    }
-                    
-                    if (converted == null || converted.isEmpty()) {
-                        System.err.println("無法轉換等級: 物品='" + item + "', 提取部分='" + levelPart + "'");
-                    }
-                    return converted;
-                })
-                .filter(level -> level != null && !level.isEmpty())
-                .distinct()
-                .forEach(levels::add);
+            catalogs.remove(realmName);
         }
-        
-        itemLevelComboBox.setItems(levels);
-
-        // 为宝石、徽章、手套和项链添加默认等级显示
-        if (Arrays.asList("gem", "badge", "glove", "necklace").contains(itemType)) {
-            if (levels.isEmpty()) {
-                levels.add("默認");
-                levelCodeMap.put("默認", ""); // 将"默認"映射为空字符串以生成基础类型键
-            }
-            itemLevelComboBox.getSelectionModel().select(0);
+        if (realmName.equals(realmComboBox.getValue())) {
+            initializeLayers(realmName);
         }
-        if (Arrays.asList("gem", "glove", "necklace", "badge").contains(itemType) && !levels.isEmpty()) {
-            itemLevelComboBox.getSelectionModel().select(0);
+        curvePane.refresh();
+    }
+
+    // 显示各世界的加载失败信息
+    private void showLoadFailures() {
+        Map<String, String> failures = realmLoader.getFailures();
+        if (failures.isEmpty()) {
+            resultArea.clear();
+            return;
         }
+        StringBuilder sb = new StringBuilder("以下世界資料載入失敗:\n");
+        failures.forEach((file, message) -> sb.append(file).append(": ").append(message).append("\n"));
+        resultArea.setText(sb.toString());
+    }
+
+    // 初始化层级选择：只查找已构建的目录（目录在加载和热重载时构建）
+    private void initializeLayers(String realmName) {
+        ItemCatalog catalog = catalogs.get(realmName);
+        layerComboBox.setItems(catalog == null
+                ? FXCollections.observableArrayList()
+                : FXCollections.observableArrayList(catalog.getLayerDisplayNames()));
+    }
 
-        // 为武器和装备保留默认等级选择
-        if (("weapon".equals(itemType) || "equipment".equals(itemType)) && !levels.isEmpty()) {
+    // 层级变化时填充物品类型
+    private void layerChanged(String layerName) {
+        ItemCatalog.LayerEntry layer = selectedLayer(layerName);
+        itemTypeComboBox.setItems(layer == null
+                ? FXCollections.observableArrayList()
+                : FXCollections.observableArrayList(layer.getTypeDisplayNames()));
+    }
+
+    // 物品类型变化时填充等级，并默认选中第一个
+    private void itemTypeChanged(String typeName) {
+        ItemCatalog.LayerEntry layer = selectedLayer(layerComboBox.getValue());
+        ItemCatalog.TypeEntry type = layer == null ? null : layer.getType(typeName);
+        ObservableList<String> levels = type == null
+                ? FXCollections.observableArrayList()
+                : FXCollections.observableArrayList(type.getLevelDisplayNames());
+        itemLevelComboBox.setItems(levels);
+        if (!levels.isEmpty()) {
             itemLevelComboBox.getSelectionModel().select(0);
         }
     }
-    
-    // 辅助方法：添加等级到列表并维护映射
-    private void addLevelIfAvailable(ObservableList<String> levels, String code, String displayName, Set<String> existingLevels) {
-        if (existingLevels.contains(code)) {
-            levelCodeMap.put(displayName, code);
-            levels.add(displayName);
-        }
+
+    private ItemCatalog.LayerEntry selectedLayer(String layerName) {
+        ItemCatalog catalog = catalogs.get(realmComboBox.getValue());
+        return catalog == null ? null : catalog.getLayer(layerName);
     }
 
     // 计算按钮点击事件
     @FXML
     private void calculate() {
-        try {
-            String realmName = realmComboBox.getValue();
-            String layerName = layerComboBox.getValue();
-            // 获取原始物品类型编码
-            String chineseType = itemTypeComboBox.getValue();
-            String originalType = typeCodeMap.entrySet().stream()
-                .filter(entry -> entry.getValue().equals(chineseType))
-                .map(Map.Entry::getKey)
-                .findFirst().orElse(null);
+        liveCalculateDelay.stop();
+        calculate(false);
+    }
 
-            String levelDisplayName = itemLevelComboBox.getValue();
-            String originalLevel = levelCodeMap.get(levelDisplayName);
-            if (originalLevel == null) {
-                originalLevel = levelDisplayName;
-            }
+    // 即时计算时输入尚不完整（如数量为空）不提示错误，保留上一次结果
+    private void calculate(boolean live) {
+        CostCurvePane.Selection selection = currentSelection();
+        if (selection == null) {
+            if (!live) resultArea.setText("请选择物品类型和等级");
+            return;
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(quantityField.getText().trim());
+        } catch (NumberFormatException e) {
+            if (!live) resultArea.setText("请输入有效的数量");
+            return;
+        }
+        if (quantity <= 0) {
+            if (!live) resultArea.setText("请填写所有必要信息并确保数量为正数");
+            return;
+        }
+        submitCalculation(selection.realmName(), selection.layerId(), selection.itemKey(), quantity);
+    }
 
-            if (originalType == null || originalLevel == null) {
-                resultArea.setText("请选择物品类型和等级");
-                return;
-            }
-            // 当等级为空时生成基础类型键，否则添加等级后缀
-            String itemKey = originalLevel.isEmpty() ? originalType : originalType + "_" + originalLevel;
-            int quantity = Integer.parseInt(quantityField.getText());
+    // 当前选中的(世界, 层级, 物品)，未选全时返回null
+    private CostCurvePane.Selection currentSelection() {
+        String realmName = realmComboBox.getValue();
+        ItemCatalog.LayerEntry layer = selectedLayer(layerComboBox.getValue());
+        ItemCatalog.TypeEntry type = layer == null ? null : layer.getType(itemTypeComboBox.getValue());
+        String itemKey = type == null ? null : type.getItemKey(itemLevelComboBox.getValue());
+        if (realmName == null || itemKey == null) return null;
+        return new CostCurvePane.Selection(realmName, layer.getLayerId(), itemKey);
+    }
 
-            if (realmName == null || layerName == null || itemKey == null || quantity <= 0) {
-                resultArea.setText("请填写所有必要信息并确保数量为正数");
-                return;
+    // 在后台执行计算并格式化结果，完成后在界面线程显示；已被取代的计算不会显示
+    private void submitCalculation(String realmName, String layerId, String itemKey, int quantity) {
+        if (currentCalculation != null) {
+            currentCalculation.cancel();
+        }
+        Task<ResultView> task = new Task<>() {
+            @Override
+            protected ResultView call() {
+                CalculationResult result = calculator.calculate(realmName, layerId, itemKey, quantity);
+                if (isCancelled()) return null;
+                return new ResultView(formatSummary(result), ResultRow.of(List.of(result)));
             }
-
-            // 获取选中的层级ID
-            String layerId = layersMap.entrySet().stream()
-                    .filter(entry -> entry.getValue().equals(layerName))
-                    .map(Map.Entry::getKey)
-                    .findFirst().orElse(null);
-            System.err.println("生成的物品键: " + itemKey + ", 层级ID: " + layerId);
-
-            if (layerId == null) {
-                resultArea.setText("无法找到选中的层级");
-                return;
+        };
+        task.setOnSucceeded(event -> {
+            if (task != currentCalculation) return;
+            resultArea.setText(task.getValue().summary());
+            // 数据中出现 Currency 未列出的货币时补充对应的列
+            for (ResultRow row : task.getValue().rows()) {
+                row.getRefineCurrency().keySet().forEach(this::addCurrencyColumn);
             }
-
-            // 执行计算
-            CalculationResult result = calculator.calculate(realmName, layerId, itemKey, quantity);
-            displayResult(result);
-
-        } catch (NumberFormatException e) {
-            resultArea.setText("请输入有效的数量");
-        } catch (Exception e) {
-            resultArea.setText("计算出错: " + e.getMessage());
-        }
+            sourceTable.getItems().setAll(task.getValue().rows());
+            sourceTable.sort();
+        });
+        task.setOnFailed(event -> {
+            if (task != currentCalculation) return;
+            resultArea.setText("计算出错: " + task.getException().getMessage());
+            sourceTable.getItems().clear();
+        });
+        currentCalculation = task;
+        calculationExecutor.execute(task);
     }
 
-    // 显示计算结果
-    private void displayResult(CalculationResult result) {
+    // 后台计算得到的显示内容：汇总文字 + 材料来源表格行
+    private record ResultView(String summary, List<ResultRow> rows) {}
+
+    // 格式化汇总信息（在后台线程执行）；各材料来源在表格中显示
+    private static String formatSummary(CalculationResult result) {
         StringBuilder sb = new StringBuilder();
         sb.append("===== 計算結果 =====\n");
-        sb.append("世界: ").append(result.getRealmName()).append("\n");
-        sb.append("層級: ").append(result.getLayerName()).append("\n");
-        sb.append("物品: ").append(result.getItemName()).append("\n");
-        sb.append("製作數量: ").append(result.getQuantity()).append("\n\n");
+        sb.append("世界: ").append(result.getRealmName())
+          .append("  層級: ").append(result.getLayerName())
+          .append("  物品: ").append(result.getItemName())
+          .append("  製作數量: ").append(result.getQuantity()).append("\n");
+        sb.append("(小怪和精英小怪出現的位置有時候不止一個，請注意)\n");
 
-        sb.append("----- 材料來源 -----\n");
-        result.getSources().forEach(source -> {
-            sb.append("怪物: " ).append(source.getMonsterName()).append("\n");
-            sb.append("怪物位置: ").append(source.getPosition()).append("(小怪和精英小怪出現的位置有時候不止一個，請注意)\n所需數量: " ).append(source.getQuantity()).append("\n");
-            // 如果需要精炼，在材料来源下方显示精炼成本
-            if (result.getRefineMaterialPerTime() != null && !result.getRefineMaterialPerTime().isEmpty()) {
-                sb.append("精煉貨幣成本: ").append(result.getPerRefinementCurrencyCost()).append("\n");
-            }
-        });
-
-        sb.append("\n----- 最終共計需要材料 -----\n");
+        sb.append("----- 最終共計需要材料 -----\n");
         sb.append("所需未精煉材料總量: ").append(result.getUnrefinedTotal()).append("\n");
         if (result.getRefineMaterialPerTime() != null) {
             sb.append("已精煉材料: ").append(result.getRefineMaterialPerTime()).append("\n");
             sb.append("精煉貨幣成本: ").append(result.getCurrencyCost()).append("\n");
         }
 
-        resultArea.setText(sb.toString());
+        return sb.toString();
     }
 }
\ No newline at end of file
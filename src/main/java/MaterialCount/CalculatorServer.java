@@ -0,0 +1,210 @@
+package MaterialCount;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+// 本地HTTP计算服务：所有请求共享同一个已加载的 MaterialCalculator，每个请求一个虚拟线程
+//
+// 用法: java -m MaterialCount/MaterialCount.CalculatorServer [--host 127.0.0.1] [--port 8080]
+// 接口（均为GET，返回JSON）:
+//   /realms                                   世界名称列表
+//   /layers?realm=夢                          层级ID -> 显示名
+//   /items?realm=夢&layer=layer_1             层级内可掉落的物品键（层级也可写作 1c）
+// 世界或层级不存在时返回400
+//   /calculate?realm=夢&layer=layer_1&item=weapon_high&quantity=30
+//   /metrics                                  运行指标（纯文本），同样的数据也通过JMX公开
+//   /costs.csv                                单位成本表（CSV），每个(世界, 层级, 物品)一行
+public class CalculatorServer {
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final MaterialCalculator calculator;
+    private final EngineMetrics metrics;
+    private final HttpServer server;
+
+    public CalculatorServer(MaterialCalculator calculator, InetSocketAddress address) throws IOException {
+        this.calculator = calculator;
+        this.metrics = EngineMetrics.register(calculator);
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/realms", handler(params -> gson.toJsonTree(calculator.getRealmNames())));
+        server.createContext("/layers", handler(params ->
+                gson.toJsonTree(calculator.getLayersForRealm(requireRealm(required(params, "realm")).getRealmName()))));
+        server.createContext("/items", handler(this::items));
+        server.createContext("/calculate", handler(this::calculate));
+        server.createContext("/metrics", exchange -> {
+            try (exchange) {
+                send(exchange, 200, "text/plain; charset=utf-8", metrics.dump());
+            }
+        });
+        server.createContext("/costs.csv", exchange -> {
+            try (exchange) {
+                StringWriter csv = new StringWriter();
+                calculator.getCostTable().exportCsv(csv);
+                send(exchange, 200, "text/csv; charset=utf-8", csv.toString());
+            }
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = "127.0.0.1";
+        int port = 8080;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host" -> host = args[++i];
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("未知参数: " + args[i]);
+                    System.err.println("用法: CalculatorServer [--host 地址] [--port 端口]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        // 启动时一次性加载全部世界，之后所有请求共享
+        MaterialCalculator calculator = new MaterialCalculator();
+        RealmLoader realmLoader = new RealmLoader(calculator, RealmLoader.DEFAULT_REALM_FILES);
+        realmLoader.loadAll().join();
+        realmLoader.getFailures().forEach((file, message) -> System.err.println("世界数据加载失败: " + file + ": " + message));
+
+        CalculatorServer server = new CalculatorServer(calculator, new InetSocketAddress(host, port));
+        server.start();
+        System.out.println("计算服务已启动: http://" + host + ":" + server.getPort() + "/");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private JsonObject calculate(Map<String, String> params) {
+        String quantityParam = required(params, "quantity");
+        int quantity;
+        try {
+            quantity = Integer.parseInt(quantityParam);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效数量: " + quantityParam);
+        }
+        if (quantity <= 0) throw new IllegalArgumentException("数量必须为正数: " + quantity);
+
+        CalculationResult result = calculator.calculate(required(params, "realm"),
+                MaterialCalculator.normalizeLayer(required(params, "layer")), required(params, "item"), quantity);
+        JsonObject json = new JsonObject();
+        json.addProperty("realm", result.getRealmName());
+        json.addProperty("layer", result.getLayerName());
+        json.addProperty("item", result.getItemName());
+        json.addProperty("quantity", result.getQuantity());
+        // 只输出数值，堆叠拆分和货币名称由调用方自行展示
+        json.addProperty("unrefined", result.getUnrefinedCount());
+        json.addProperty("stackSize", result.getStackSize());
+        json.addProperty("needsRefinement", result.needsRefinement());
+        json.addProperty("refineCount", result.getRefineCount());
+        JsonObject currency = new JsonObject();
+        result.getCurrencyTotals().forEach(currency::addProperty);
+        json.add("currency", currency);
+        JsonObject perRefinement = new JsonObject();
+        result.getPerRefinementCurrency().forEach(perRefinement::addProperty);
+        json.add("perRefinementCurrency", perRefinement);
+        JsonArray sources = new JsonArray();
+        for (MaterialSource source : result.getSources()) {
+            JsonObject s = new JsonObject();
+            s.addProperty("monster", source.getMonsterName());
+            s.addProperty("position", source.getPosition());
+            s.addProperty("quantity", source.getQuantity());
+            sources.add(s);
+        }
+        json.add("sources", sources);
+        return json;
+    }
+
+    private JsonElement items(Map<String, String> params) {
+        Realm realm = requireRealm(required(params, "realm"));
+        String layerId = MaterialCalculator.normalizeLayer(required(params, "layer"));
+        if (realm.getLayerIndex(layerId) == null) throw new IllegalArgumentException("无效层级: " + layerId);
+        return gson.toJsonTree(calculator.getItemsInLayer(realm.getRealmName(), layerId));
+    }
+
+    private Realm requireRealm(String realmName) {
+        Realm realm = calculator.getRealm(realmName);
+        if (realm == null) throw new IllegalArgumentException("无效世界: " + realmName);
+        return realm;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("缺少参数: " + name);
+        return value;
+    }
+
+    // 统一处理方法校验、参数解析和错误响应
+    private HttpHandler handler(Endpoint endpoint) {
+        return exchange -> {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    send(exchange, 405, JSON, error("只支持GET请求"));
+                    return;
+                }
+                try {
+                    send(exchange, 200, JSON, gson.toJson(endpoint.handle(parseQuery(exchange.getRequestURI().getRawQuery()))));
+                } catch (IllegalArgumentException e) {
+                    send(exchange, 400, JSON, error(e.getMessage()));
+                } catch (Exception e) {
+                    send(exchange, 500, JSON, error("计算出错: " + e.getMessage()));
+                }
+            }
+        };
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String error(String message) {
+        JsonObject json = new JsonObject();
+        json.addProperty("error", message);
+        return gson.toJson(json);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private interface Endpoint {
+        Object handle(Map<String, String> params) throws Exception;
+    }
+}
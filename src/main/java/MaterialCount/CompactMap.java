@@ -0,0 +1,166 @@
+package MaterialCount;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// 只读的紧凑映射：键和值分别存放在数组中，保持插入顺序
+// 世界数据中的映射大多只有几个条目，小映射线性查找，较大的映射额外建立开放寻址索引
+// 相比 LinkedHashMap 每个条目不再需要单独的节点对象
+public final class CompactMap<V> extends AbstractMap<String, V> {
+    // 条目数超过该值时建立哈希索引
+    private static final int LINEAR_SCAN_LIMIT = 8;
+    private static final CompactMap<?> EMPTY = new CompactMap<>(new String[0], new Object[0]);
+
+    private final String[] keys;
+    private final Object[] values;
+    // 开放寻址表，存放 条目下标+1（0表示空位），小映射为null
+    private final int[] table;
+
+    private CompactMap(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.table = keys.length > LINEAR_SCAN_LIMIT ? buildTable(keys) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> CompactMap<V> empty() {
+        return (CompactMap<V>) EMPTY;
+    }
+
+    // 复制为紧凑映射（保持原映射的遍历顺序），null 原样返回
+    public static <V> CompactMap<V> copyOf(Map<String, ? extends V> map) {
+        if (map == null) return null;
+        if (map instanceof CompactMap) {
+            @SuppressWarnings("unchecked")
+            CompactMap<V> compact = (CompactMap<V>) map;
+            return compact;
+        }
+        Builder<V> builder = new Builder<>(map.size());
+        map.forEach(builder::put);
+        return builder.build();
+    }
+
+    // 建立索引时顺带检查重复的键：相同的键一定落在同一条探测链上
+    private static int[] buildTable(String[] keys) {
+        int[] table = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+        int mask = table.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = keys[i].hashCode() & mask;
+            while (table[slot] != 0) {
+                if (keys[table[slot] - 1].equals(keys[i])) throw new IllegalArgumentException("重复的键: " + keys[i]);
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) return -1;
+        if (table == null) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) return i;
+            }
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int slot = key.hashCode() & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+            if (keys[index].equals(key)) return index;
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return keys.length;
+            }
+
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<String, V> next() {
+                        if (next >= keys.length) throw new NoSuchElementException();
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+                    }
+                };
+            }
+        };
+    }
+
+    // 构建器：按插入顺序收集条目，重复的键视为数据错误，在 build() 时抛出 IllegalArgumentException
+    public static final class Builder<V> {
+        private String[] keys;
+        private Object[] values;
+        private int size;
+
+        public Builder() {
+            this(4);
+        }
+
+        public Builder(int expectedSize) {
+            keys = new String[Math.max(expectedSize, 1)];
+            values = new Object[keys.length];
+        }
+
+        public Builder<V> put(String key, V value) {
+            if (key == null) throw new IllegalArgumentException("键不能为空");
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public CompactMap<V> build() {
+            if (size == 0) return empty();
+            // 大映射在建立哈希索引时检查重复，小映射没有索引，直接两两比较
+            if (size <= LINEAR_SCAN_LIMIT) {
+                for (int i = 1; i < size; i++) {
+                    for (int j = 0; j < i; j++) {
+                        if (keys[j].equals(keys[i])) throw new IllegalArgumentException("重复的键: " + keys[i]);
+                    }
+                }
+            }
+            return new CompactMap<>(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+        }
+    }
+}
\ No newline at end of file
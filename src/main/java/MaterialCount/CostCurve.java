@@ -0,0 +1,68 @@
+package MaterialCount;
+
+// 数量扫描的结果：同一(世界, 层级, 物品)在一组数量下的成本曲线，全部为按点对齐的基本类型数组
+// 由成本表中的一行一次遍历得到，不生成任何显示文字；数值与对每个数量分别调用 calculate 相同
+// 数值按 long 计算；返回的数组不做拷贝，调用方不应修改
+public class CostCurve {
+    private final String realmName;
+    private final String layerName;
+    private final String itemName;
+    private final int stackSize;
+    private final String[] currencyCodes;
+    private final int[] quantities;
+    private final long[] unrefined;
+    private final long[] stacks;
+    private final long[] refineCounts;
+    // currencyTotals[c][i]：第 i 个点第 c 种货币的总成本（列与 currencyCodes 对应）
+    private final long[][] currencyTotals;
+
+    CostCurve(CostTable table, int row, int[] quantities) {
+        this.realmName = table.getRealmName(row);
+        this.layerName = table.getLayerName(row);
+        this.itemName = table.getItemName(row);
+        this.stackSize = table.is16g(row) ? 16 : 64;
+        this.currencyCodes = table.getCurrencyCodes();
+        this.quantities = quantities;
+        int n = quantities.length;
+        unrefined = new long[n];
+        stacks = new long[n];
+        refineCounts = new long[n];
+        currencyTotals = new long[currencyCodes.length][n];
+        boolean hasRefineCost = table.hasRefineCost(row);
+        for (int i = 0; i < n; i++) {
+            unrefined[i] = (long) quantities[i] * table.getDropQuantity(row);
+            stacks[i] = (unrefined[i] + stackSize - 1) / stackSize;
+            if (!hasRefineCost) continue;
+            refineCounts[i] = unrefined[i] / table.getRefineMaterial(row);
+            for (int c = 0; c < currencyCodes.length; c++) {
+                currencyTotals[c][i] = table.getCurrency(row, c) * refineCounts[i];
+            }
+        }
+    }
+
+    public int size() {
+        return quantities.length;
+    }
+
+    // 某种货币的曲线，该货币不在成本表中时返回null
+    public long[] getCurrencyTotals(String currencyCode) {
+        for (int c = 0; c < currencyCodes.length; c++) {
+            if (currencyCodes[c].equals(currencyCode)) return currencyTotals[c];
+        }
+        return null;
+    }
+
+    // Getters
+    public String getRealmName() { return realmName; }
+    public String getLayerName() { return layerName; }
+    public String getItemName() { return itemName; }
+    public int getStackSize() { return stackSize; }
+    public String[] getCurrencyCodes() { return currencyCodes; }
+    public int[] getQuantities() { return quantities; }
+    // 未精炼材料总数
+    public long[] getUnrefined() { return unrefined; }
+    // 占用的组数（不足一组按一组计）
+    public long[] getStacks() { return stacks; }
+    public long[] getRefineCounts() { return refineCounts; }
+    public long[][] getCurrencyTotals() { return currencyTotals; }
+}
\ No newline at end of file
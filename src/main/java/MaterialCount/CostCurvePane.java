@@ -0,0 +1,194 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+
+// 成本曲线面板：把若干(世界, 层级, 物品)的数量扫描画在同一张折线图上，比较不同物品或层级的成本随数量的变化
+// 扫描在后台执行；切换指标只重画已有曲线，修改数量范围或世界数据重新加载后重新扫描
+final class CostCurvePane extends BorderPane {
+    // 一条曲线对应的物品
+    public record Selection(String realmName, String layerId, String itemKey) {}
+
+    // 可绘制的指标：显示名 + 从曲线中取出的数组
+    private record Metric(String displayName, Function<CostCurve, long[]> values) {
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private static final List<Metric> BASE_METRICS = List.of(
+            new Metric("未精煉材料", CostCurve::getUnrefined),
+            new Metric("組數", CostCurve::getStacks),
+            new Metric("精煉次數", CostCurve::getRefineCounts));
+
+    private final MaterialCalculator calculator;
+    private final Supplier<Selection> currentSelection;
+    private final ExecutorService executor;
+
+    private final NumberAxis quantityAxis = new NumberAxis();
+    private final NumberAxis valueAxis = new NumberAxis();
+    private final LineChart<Number, Number> chart = new LineChart<>(quantityAxis, valueAxis);
+    private final ComboBox<Metric> metricComboBox = new ComboBox<>();
+    private final TextField fromField = new TextField("10");
+    private final TextField toField = new TextField("1000");
+    private final TextField stepField = new TextField("10");
+    private final Label statusLabel = new Label("選擇物品後點擊「加入比較」");
+
+    private final List<Selection> selections = new ArrayList<>();
+    // 与 selections 一一对应的最近一次扫描结果
+    private List<CostCurve> curves = List.of();
+    private Task<List<CostCurve>> currentSweep;
+
+    // currentSelection 返回主界面当前选中的物品（未选全时为null）；扫描任务提交到 executor
+    public CostCurvePane(MaterialCalculator calculator, Supplier<Selection> currentSelection, ExecutorService executor) {
+        this.calculator = calculator;
+        this.currentSelection = currentSelection;
+        this.executor = executor;
+
+        quantityAxis.setLabel("製作數量");
+        quantityAxis.setForceZeroInRange(false);
+        chart.setCreateSymbols(false);
+        chart.setAnimated(false);
+        metricComboBox.setItems(FXCollections.observableArrayList(BASE_METRICS));
+        metricComboBox.getSelectionModel().select(0);
+        metricComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> redraw());
+        for (TextField field : List.of(fromField, toField, stepField)) {
+            field.setPrefWidth(70);
+            field.setOnAction(event -> resweep());
+        }
+
+        Button addButton = new Button("加入比較");
+        addButton.setOnAction(event -> addCurrentSelection());
+        Button updateButton = new Button("更新");
+        updateButton.setOnAction(event -> resweep());
+        Button clearButton = new Button("清除");
+        clearButton.setOnAction(event -> clear());
+
+        HBox controls = new HBox(8, new Label("指標:"), metricComboBox, new Label("數量:"), fromField, new Label("至"), toField,
+                new Label("間隔"), stepField, updateButton, addButton, clearButton);
+        controls.setPadding(new Insets(10));
+        setTop(controls);
+        setCenter(chart);
+        statusLabel.setPadding(new Insets(0, 10, 10, 10));
+        setBottom(statusLabel);
+    }
+
+    private void addCurrentSelection() {
+        Selection selection = currentSelection.get();
+        if (selection == null) {
+            statusLabel.setText("请先选择物品类型和等级");
+            return;
+        }
+        if (selections.contains(selection)) {
+            statusLabel.setText("该物品已在比较中");
+            return;
+        }
+        selections.add(selection);
+        resweep();
+    }
+
+    private void clear() {
+        if (currentSweep != null) currentSweep.cancel();
+        selections.clear();
+        curves = List.of();
+        chart.getData().clear();
+        statusLabel.setText("已清除");
+    }
+
+    // 世界数据重新加载后按新数据重新扫描
+    public void refresh() {
+        if (!selections.isEmpty()) resweep();
+    }
+
+    // 按当前数量范围重新扫描所有曲线，已被取代的扫描结果不会显示
+    private void resweep() {
+        if (selections.isEmpty()) return;
+        int from;
+        int to;
+        int step;
+        try {
+            from = Integer.parseInt(fromField.getText().trim());
+            to = Integer.parseInt(toField.getText().trim());
+            step = Integer.parseInt(stepField.getText().trim());
+        } catch (NumberFormatException e) {
+            statusLabel.setText("请输入有效的数量范围");
+            return;
+        }
+        if (currentSweep != null) currentSweep.cancel();
+        List<Selection> requested = List.copyOf(selections);
+        Task<List<CostCurve>> task = new Task<>() {
+            @Override
+            protected List<CostCurve> call() {
+                List<CostCurve> result = new ArrayList<>(requested.size());
+                for (Selection selection : requested) {
+                    if (isCancelled()) return null;
+                    result.add(calculator.sweep(selection.realmName(), selection.layerId(), selection.itemKey(), from, to, step));
+                }
+                return result;
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (task != currentSweep) return;
+            curves = task.getValue();
+            updateMetrics();
+            redraw();
+            statusLabel.setText(curves.size() + " 條曲線，每條 " + curves.get(0).size() + " 個點");
+        });
+        task.setOnFailed(event -> {
+            if (task != currentSweep) return;
+            statusLabel.setText("计算出错: " + task.getException().getMessage());
+        });
+        currentSweep = task;
+        executor.execute(task);
+    }
+
+    // 指标列表：基本指标 + 成本表中的各货币，尽量保持当前选择
+    private void updateMetrics() {
+        Metric selected = metricComboBox.getValue();
+        List<Metric> metrics = new ArrayList<>(BASE_METRICS);
+        for (String code : curves.get(0).getCurrencyCodes()) {
+            metrics.add(new Metric(Currency.displayNameOf(code), curve -> curve.getCurrencyTotals(code)));
+        }
+        if (metrics.stream().map(Metric::displayName).toList().equals(
+                metricComboBox.getItems().stream().map(Metric::displayName).toList())) return;
+        metricComboBox.setItems(FXCollections.observableArrayList(metrics));
+        metricComboBox.getSelectionModel().select(metrics.stream()
+                .filter(metric -> selected != null && metric.displayName().equals(selected.displayName()))
+                .findFirst().orElse(metrics.get(0)));
+    }
+
+    private void redraw() {
+        Metric metric = metricComboBox.getValue();
+        if (metric == null) return;
+        valueAxis.setLabel(metric.displayName());
+        List<XYChart.Series<Number, Number>> series = new ArrayList<>(curves.size());
+        for (CostCurve curve : curves) {
+            int[] quantities = curve.getQuantities();
+            long[] values = metric.values().apply(curve);
+            List<XYChart.Data<Number, Number>> points = new ArrayList<>(quantities.length);
+            for (int i = 0; i < quantities.length; i++) {
+                points.add(new XYChart.Data<>(quantities[i], values == null ? 0 : values[i]));
+            }
+            series.add(new XYChart.Series<>(curve.getRealmName() + " " + curve.getLayerName() + " " + curve.getItemName(),
+                    FXCollections.observableArrayList(points)));
+        }
+        chart.getData().setAll(series);
+    }
+}
\ No newline at end of file
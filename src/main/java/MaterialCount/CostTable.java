@@ -0,0 +1,218 @@
+package MaterialCount;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// 单位成本表：加载时为每个(世界, 层级, 物品)预先算好制作1个物品的成本，按整数行号存放在数组中
+// 世界、层级、物品和货币都以本表自己的符号表编号保存（随数据版本一起替换），按编号组合查找行号；计算时只需查到行号再乘以数量
+// 整张表可导出为CSV，供其他工具直接使用
+//
+// 导出: java -m MaterialCount/MaterialCount.CostTable [输出文件]（省略时写到标准输出）
+public class CostTable {
+    private static final byte NEEDS_REFINEMENT = 1;
+    private static final byte IS_16G = 2;
+    private static final byte HAS_REFINE_COST = 4;
+    // 组合键中每个编号占用的位数
+    private static final int ID_BITS = 21;
+
+    private final SymbolTable symbols = new SymbolTable();
+    // 货币列的符号编号（按编码排序）
+    private final int[] currencyIds;
+    // (世界, 层级, 物品)组合键 -> 行号+1 的开放寻址表（0表示空位）
+    private final long[] slotKeys;
+    private final int[] slotRows;
+
+    // 按行存放的数值
+    private final int[] dropQuantity;
+    private final int[] refineMaterial;
+    private final byte[] flags;
+    // 第 row 行第 c 种货币位于 currency[row * currencyIds.length + c]
+    private final int[] currency;
+
+    // 按行存放的符号编号
+    private final int[] realmIds;
+    private final int[] layerIds;
+    private final int[] itemIds;
+    // 按行存放的显示名（符号表中的共享字符串）
+    private final String[] layerNames;
+    private final String[] itemNames;
+    private final List<List<MaterialSource>> sources;
+    private final List<Map<String, Integer>> currencyMaps;
+
+    public CostTable(List<Row> rows) {
+        TreeSet<String> codes = new TreeSet<>();
+        for (Row row : rows) codes.addAll(row.currency().keySet());
+        currencyIds = codes.stream().mapToInt(symbols::intern).toArray();
+
+        int n = rows.size();
+        dropQuantity = new int[n];
+        refineMaterial = new int[n];
+        flags = new byte[n];
+        currency = new int[n * currencyIds.length];
+        realmIds = new int[n];
+        layerIds = new int[n];
+        itemIds = new int[n];
+        layerNames = new String[n];
+        itemNames = new String[n];
+        sources = new ArrayList<>(n);
+        currencyMaps = new ArrayList<>(n);
+        slotKeys = new long[Math.max(2, Integer.highestOneBit(Math.max(n, 1) * 2 - 1) << 1)];
+        slotRows = new int[slotKeys.length];
+        for (int i = 0; i < n; i++) {
+            Row row = rows.get(i);
+            realmIds[i] = symbols.intern(row.realmName());
+            layerIds[i] = symbols.intern(row.layerId());
+            itemIds[i] = symbols.intern(row.itemKey());
+            insert(key(realmIds[i], layerIds[i], itemIds[i]), i);
+            dropQuantity[i] = row.dropQuantity();
+            refineMaterial[i] = row.refineMaterial();
+            boolean hasRefineCost = row.needsRefinement() && (row.refineMaterial() != 0 || !row.currency().isEmpty());
+            flags[i] = (byte) ((row.needsRefinement() ? NEEDS_REFINEMENT : 0) | (row.is16g() ? IS_16G : 0)
+                    | (hasRefineCost ? HAS_REFINE_COST : 0));
+            for (int c = 0; c < currencyIds.length; c++) {
+                currency[i * currencyIds.length + c] = row.currency().getOrDefault(symbols.name(currencyIds[c]), 0);
+            }
+            layerNames[i] = symbols.canonical(row.layerName());
+            itemNames[i] = symbols.canonical(row.itemName());
+            sources.add(row.sources());
+            currencyMaps.add(row.currency());
+        }
+    }
+
+    // 构建表格用的一行：所有来源汇总后的单位成本
+    public record Row(String realmName, String layerId, String itemKey, String layerName, String itemName,
+                      List<MaterialSource> sources, int dropQuantity, boolean needsRefinement, boolean is16g,
+                      int refineMaterial, Map<String, Integer> currency) {}
+
+    public static void main(String[] args) throws Exception {
+        // 加载日志改到标准错误，标准输出只写表格
+        java.io.PrintStream stdout = System.out;
+        System.setOut(System.err);
+        MaterialCalculator calculator = new MaterialCalculator();
+        RealmLoader realmLoader = new RealmLoader(calculator, RealmLoader.DEFAULT_REALM_FILES);
+        realmLoader.loadAll().join();
+        realmLoader.getFailures().forEach((file, message) -> System.err.println("世界数据加载失败: " + file + ": " + message));
+
+        try (Writer writer = args.length > 0
+                ? Files.newBufferedWriter(Paths.get(args[0]), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8))) {
+            calculator.getCostTable().exportCsv(writer);
+        }
+    }
+
+    private static long key(int realmId, int layerId, int itemId) {
+        if (((realmId | layerId | itemId) >>> ID_BITS) != 0) throw new IllegalStateException("符号编号超出范围");
+        return ((long) realmId << (2 * ID_BITS)) | ((long) layerId << ID_BITS) | itemId;
+    }
+
+    private static int slotOf(long key, int mask) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+    }
+
+    private void insert(long key, int row) {
+        int mask = slotKeys.length - 1;
+        int slot = slotOf(key, mask);
+        while (slotRows[slot] != 0) slot = (slot + 1) & mask;
+        slotKeys[slot] = key;
+        slotRows[slot] = row + 1;
+    }
+
+    // 按符号编号查找行号，不存在时返回-1；编号只在本表的符号表内有效，不能与其他版本的成本表混用
+    public int rowOf(int realmId, int layerId, int itemId) {
+        if (((realmId | layerId | itemId) >>> ID_BITS) != 0) return -1;
+        long key = key(realmId, layerId, itemId);
+        int mask = slotKeys.length - 1;
+        for (int slot = slotOf(key, mask); slotRows[slot] != 0; slot = (slot + 1) & mask) {
+            if (slotKeys[slot] == key) return slotRows[slot] - 1;
+        }
+        return -1;
+    }
+
+    // 按名称查找行号，不存在时返回-1（未出现过的名称不会加入符号表）
+    public int rowOf(String realmName, String layerId, String itemKey) {
+        return rowOf(symbols.find(realmName), symbols.find(layerId), symbols.find(itemKey));
+    }
+
+    // 本表的符号表（世界、层级、物品键和货币编码）
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public int size() {
+        return dropQuantity.length;
+    }
+
+    // 货币列的编码
+    public String[] getCurrencyCodes() {
+        String[] codes = new String[currencyIds.length];
+        for (int c = 0; c < codes.length; c++) codes[c] = getCurrencyCode(c);
+        return codes;
+    }
+
+    public int getCurrencyCount() {
+        return currencyIds.length;
+    }
+
+    // 第 column 种货币的编码（符号表中的共享字符串）
+    public String getCurrencyCode(int column) {
+        return symbols.name(currencyIds[column]);
+    }
+
+    // 每个物品所需的未精炼材料数（所有来源之和）
+    public int getDropQuantity(int row) { return dropQuantity[row]; }
+    // 每次精炼消耗的材料数（所有来源之和）
+    public int getRefineMaterial(int row) { return refineMaterial[row]; }
+    public boolean needsRefinement(int row) { return (flags[row] & NEEDS_REFINEMENT) != 0; }
+    public boolean is16g(int row) { return (flags[row] & IS_16G) != 0; }
+    public boolean hasRefineCost(int row) { return (flags[row] & HAS_REFINE_COST) != 0; }
+    // 每次精炼第 column 种货币的成本（列见 getCurrencyCodes）
+    public int getCurrency(int row, int column) { return currency[row * currencyIds.length + column]; }
+    // 每次精炼的货币成本（货币编码 -> 数量）
+    public Map<String, Integer> getCurrencyMap(int row) { return currencyMaps.get(row); }
+
+    public int getRealmSymbol(int row) { return realmIds[row]; }
+    public int getLayerSymbol(int row) { return layerIds[row]; }
+    public int getItemSymbol(int row) { return itemIds[row]; }
+    public String getRealmName(int row) { return symbols.name(realmIds[row]); }
+    public String getLayerId(int row) { return symbols.name(layerIds[row]); }
+    public String getItemKey(int row) { return symbols.name(itemIds[row]); }
+    public String getLayerName(int row) { return layerNames[row]; }
+    public String getItemName(int row) { return itemNames[row]; }
+    public List<MaterialSource> getSources(int row) { return sources.get(row); }
+
+    // 指定数量下的未精炼材料总数
+    public int unrefinedFor(int row, int quantity) {
+        return quantity * dropQuantity[row];
+    }
+
+    // 指定数量下的精炼次数
+    public int refineCountFor(int row, int quantity) {
+        return hasRefineCost(row) ? unrefinedFor(row, quantity) / refineMaterial[row] : 0;
+    }
+
+    // 导出为CSV：世界,层级,物品键,单位未精炼材料,需精炼,16g,每次精炼材料,各货币每次精炼成本...
+    public void exportCsv(Writer writer) throws IOException {
+        writer.write("realm,layer,item,drop_quantity,needs_refinement,is_16g,refine_material");
+        for (String code : getCurrencyCodes()) writer.write("," + code);
+        writer.write('\n');
+        for (int row = 0; row < size(); row++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(getRealmName(row)).append(',').append(getLayerId(row)).append(',').append(getItemKey(row)).append(',')
+              .append(dropQuantity[row]).append(',').append(needsRefinement(row)).append(',').append(is16g(row)).append(',')
+              .append(hasRefineCost(row) ? refineMaterial[row] : 0);
+            for (int c = 0; c < currencyIds.length; c++) {
+                sb.append(',').append(hasRefineCost(row) ? getCurrency(row, c) : 0);
+            }
+            writer.write(sb.append('\n').toString());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package MaterialCount;
+
+// 精炼货币：JSON中的编码和繁体显示名
+public enum Currency {
+    SILVER("silver", "銀元"),
+    COPPER("copper", "銅幣"),
+    GOLD("gold", "金元"),
+    DREAM_COIN("dream_coin", "夢元");
+
+    private final String code;
+    private final String displayName;
+
+    Currency(String code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+
+    // 按编码查找，未知编码返回null
+    public static Currency fromCode(String code) {
+        for (Currency currency : values()) {
+            if (currency.code.equals(code)) return currency;
+        }
+        return null;
+    }
+
+    // 显示名，未知编码原样返回
+    public static String displayNameOf(String code) {
+        Currency currency = fromCode(code);
+        return currency == null ? code : currency.displayName;
+    }
+
+    // Getters
+    public String getCode() { return code; }
+    public String getDisplayName() { return displayName; }
+}
\ No newline at end of file
@@ -10,9 +10,18 @@ public class CurrencyCost {
     @SerializedName("refine_cost_currency")
     private Map<String, Integer> refineCostCurrency;
 
+    private transient boolean frozen;
+
     // Getters and setters
     public int getRefineCostMaterial() { return refineCostMaterial; }
-    public void setRefineCostMaterial(int refineCostMaterial) { this.refineCostMaterial = refineCostMaterial; }
+    public void setRefineCostMaterial(int refineCostMaterial) { Realm.requireMutable(frozen); this.refineCostMaterial = refineCostMaterial; }
     public Map<String, Integer> getRefineCostCurrency() { return refineCostCurrency; }
-    public void setRefineCostCurrency(Map<String, Integer> refineCostCurrency) { this.refineCostCurrency = refineCostCurrency; }
+    public void setRefineCostCurrency(Map<String, Integer> refineCostCurrency) { Realm.requireMutable(frozen); this.refineCostCurrency = refineCostCurrency; }
+
+    // 由 Monster.freeze 调用
+    void freeze() {
+        if (frozen) return;
+        refineCostCurrency = CompactMap.copyOf(refineCostCurrency);
+        frozen = true;
+    }
 }
\ No newline at end of file
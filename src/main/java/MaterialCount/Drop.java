@@ -0,0 +1,24 @@
+package MaterialCount;
+
+// 已解析的掉落信息：数量和是否需要精炼（JSON中以"64"/"64N"表示，N表示不用精炼）
+public record Drop(int quantity, boolean needsRefinement) {
+
+    // 解析掉落字符串，格式错误时抛出异常，使问题在加载阶段暴露
+    public static Drop parse(String dropValue) {
+        if (dropValue == null || dropValue.isEmpty()) {
+            throw new IllegalArgumentException("掉落数量为空");
+        }
+        boolean needsRefinement = !dropValue.endsWith("N");
+        String number = needsRefinement ? dropValue : dropValue.substring(0, dropValue.length() - 1);
+        int quantity;
+        try {
+            quantity = Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效掉落数量: " + dropValue);
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("无效掉落数量: " + dropValue);
+        }
+        return new Drop(quantity, needsRefinement);
+    }
+}
@@ -0,0 +1,21 @@
+package MaterialCount;
+
+public class DropSource {
+    private final String monsterName;
+    private final String category;
+    private final Monster monster;
+    private final Drop drop;
+
+    public DropSource(String monsterName, String category, Monster monster, Drop drop) {
+        this.monsterName = monsterName;
+        this.category = category;
+        this.monster = monster;
+        this.drop = drop;
+    }
+
+    // Getters
+    public String getMonsterName() { return monsterName; }
+    public String getCategory() { return category; }
+    public Monster getMonster() { return monster; }
+    public Drop getDrop() { return drop; }
+}
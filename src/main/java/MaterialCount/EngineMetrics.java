@@ -0,0 +1,109 @@
+package MaterialCount;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// 引擎运行指标：各操作的延迟直方图、各世界的加载耗时和按类型统计的错误次数
+// 记录方法都是静态的，JsonLoader、RealmLoader 和 MaterialCalculator 直接调用；开销只有几次原子加法
+// 实例部分实现 EngineMetricsMXBean，结合计算器的单位成本表通过JMX公开
+public class EngineMetrics implements EngineMetricsMXBean {
+    public static final String OBJECT_NAME = "MaterialCount:type=EngineMetrics";
+
+    public static final LatencyHistogram CALCULATE = new LatencyHistogram("calculate");
+    public static final LatencyHistogram CALCULATE_BATCH = new LatencyHistogram("calculateBatch");
+    public static final LatencyHistogram RANK = new LatencyHistogram("rankFarmingLocations");
+    public static final LatencyHistogram PARSE = new LatencyHistogram("parseJson");
+    public static final LatencyHistogram LOAD = new LatencyHistogram("loadRealm");
+    private static final LatencyHistogram[] HISTOGRAMS = {CALCULATE, CALCULATE_BATCH, RANK, PARSE, LOAD};
+
+    private static final Map<String, Long> realmLoadNanos = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private final MaterialCalculator calculator;
+
+    public EngineMetrics(MaterialCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    // 注册到平台MBean服务器；失败（如重复注册）时只打印警告，不影响使用
+    public static EngineMetrics register(MaterialCalculator calculator) {
+        EngineMetrics metrics = new EngineMetrics(calculator);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(metrics, name);
+        } catch (JMException e) {
+            System.err.println("JMX指标注册失败: " + e.getMessage());
+        }
+        return metrics;
+    }
+
+    // 记录世界加载耗时（同一世界只保留最近一次）
+    public static void recordRealmLoad(String realmName, long nanos) {
+        realmLoadNanos.put(realmName, nanos);
+        LOAD.record(nanos);
+    }
+
+    // 按"操作/异常类型"累计错误次数
+    public static void recordError(String operation, Throwable error) {
+        errors.computeIfAbsent(operation + "/" + error.getClass().getSimpleName(), k -> new LongAdder()).increment();
+    }
+
+    @Override public long getCalculateCount() { return CALCULATE.getCount(); }
+    @Override public double getCalculateMeanMicros() { return CALCULATE.getMeanNanos() / 1000.0; }
+    @Override public double getCalculateP50Micros() { return CALCULATE.percentileNanos(0.50) / 1000.0; }
+    @Override public double getCalculateP99Micros() { return CALCULATE.percentileNanos(0.99) / 1000.0; }
+    @Override public double getCalculateMaxMicros() { return CALCULATE.getMaxNanos() / 1000.0; }
+    @Override public long getBatchCount() { return CALCULATE_BATCH.getCount(); }
+    @Override public long getRankCount() { return RANK.getCount(); }
+
+    @Override public int getCostTableRows() { return calculator.getCostTable().size(); }
+    @Override public int getCostTableCurrencies() { return calculator.getCostTable().getCurrencyCodes().length; }
+
+    @Override
+    public Map<String, Long> getRealmLoadMillis() {
+        Map<String, Long> millis = new TreeMap<>();
+        realmLoadNanos.forEach((realm, nanos) -> millis.put(realm, nanos / 1_000_000));
+        return millis;
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# 操作延迟（微秒）\n");
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            sb.append(String.format("%-22s count=%d mean=%.1f p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                    histogram.getName(), histogram.getCount(), histogram.getMeanNanos() / 1000.0,
+                    histogram.percentileNanos(0.50) / 1000.0, histogram.percentileNanos(0.90) / 1000.0,
+                    histogram.percentileNanos(0.99) / 1000.0, histogram.getMaxNanos() / 1000.0));
+        }
+        sb.append("# 单位成本表\n");
+        sb.append(String.format("rows=%d currencies=%d%n", getCostTableRows(), getCostTableCurrencies()));
+        sb.append("# 世界加载耗时（毫秒）\n");
+        getRealmLoadMillis().forEach((realm, millis) -> sb.append(realm).append('=').append(millis).append('\n'));
+        sb.append("# 错误次数\n");
+        getErrorCounts().forEach((key, count) -> sb.append(key).append('=').append(count).append('\n'));
+        return sb.toString();
+    }
+
+    // 清空延迟和错误统计（世界加载耗时保留）
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS) histogram.reset();
+        errors.clear();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package MaterialCount;
+
+import java.util.Map;
+
+// 通过JMX公开的引擎指标（jconsole / VisualVM 中的 MaterialCount:type=EngineMetrics）
+public interface EngineMetricsMXBean {
+    long getCalculateCount();
+    double getCalculateMeanMicros();
+    double getCalculateP50Micros();
+    double getCalculateP99Micros();
+    double getCalculateMaxMicros();
+    long getBatchCount();
+    long getRankCount();
+
+    // 单位成本表的行数（世界×层级×物品）和货币列数
+    int getCostTableRows();
+    int getCostTableCurrencies();
+
+    // 世界名称 -> 最近一次加载耗时（毫秒）
+    Map<String, Long> getRealmLoadMillis();
+    // "操作/异常类型" -> 次数
+    Map<String, Long> getErrorCounts();
+
+    // 全部指标的文本形式
+    String dump();
+    void reset();
+}
\ No newline at end of file
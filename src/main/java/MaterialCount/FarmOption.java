@@ -0,0 +1,47 @@
+package MaterialCount;
+
+import java.util.Comparator;
+import java.util.Map;
+
+// 跨世界比较中的一个候选刷怪地点及其成本
+public class FarmOption {
+    // 默认排序：各货币权重均为1，即货币数量直接相加；货币价值不同时应使用 cheapestFirst 传入权重
+    public static final Comparator<FarmOption> CHEAPEST_FIRST = cheapestFirst(Map.of());
+
+    private final String realmName;
+    private final String layerId;
+    private final CalculationResult result;
+
+    public FarmOption(String realmName, String layerId, CalculationResult result) {
+        this.realmName = realmName;
+        this.layerId = layerId;
+        this.result = result;
+    }
+
+    // 排序规则：加权货币成本 -> 精炼次数 -> 来源怪物数量，均为越少越靠前
+    // currencyWeights: 货币编码 -> 权重，未列出的货币权重为1（与 SourceMixOptimizer 相同）
+    public static Comparator<FarmOption> cheapestFirst(Map<String, Double> currencyWeights) {
+        Map<String, Double> weights = Map.copyOf(currencyWeights);
+        return Comparator.<FarmOption>comparingDouble(option -> option.getWeightedCurrency(weights))
+                .thenComparingInt(FarmOption::getRefineCount)
+                .thenComparingInt(FarmOption::getSourceCount);
+    }
+
+    // 按权重折算后的货币总成本
+    public double getWeightedCurrency(Map<String, Double> currencyWeights) {
+        double total = 0;
+        for (Map.Entry<String, Integer> entry : result.getCurrencyTotals().entrySet()) {
+            total += currencyWeights.getOrDefault(entry.getKey(), 1.0) * entry.getValue();
+        }
+        return total;
+    }
+
+    // Getters
+    public String getRealmName() { return realmName; }
+    public String getLayerId() { return layerId; }
+    public CalculationResult getResult() { return result; }
+    // 指定货币类型的总量，不需要该货币时为0
+    public int getCurrency(String currencyType) { return result.getCurrencyTotals().getOrDefault(currencyType, 0); }
+    public int getRefineCount() { return result.getRefineCount(); }
+    public int getSourceCount() { return result.getSources().size(); }
+}
@@ -0,0 +1,48 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 全局物品索引：物品键 -> 可掉落该物品的所有(世界, 层级)
+// 随世界快照一起构建，条目直接引用对应的世界和层级索引，查询时无需再查找
+public class GlobalItemIndex {
+    private final Map<String, List<ItemLocation>> locationsByItem;
+
+    private GlobalItemIndex(Map<String, List<ItemLocation>> locationsByItem) {
+        this.locationsByItem = locationsByItem;
+    }
+
+    public static GlobalItemIndex build(Map<String, Realm> realms) {
+        Map<String, List<ItemLocation>> locations = new HashMap<>();
+        for (Realm realm : realms.values()) {
+            for (String layerId : realm.getLayers().keySet()) {
+                LayerIndex index = realm.getLayerIndex(layerId);
+                for (String itemKey : index.getItemKeys()) {
+                    locations.computeIfAbsent(itemKey, k -> new ArrayList<>())
+                            .add(new ItemLocation(realm, layerId, index));
+                }
+            }
+        }
+        // 固定顺序（世界名、层级），使结果可重复
+        Comparator<ItemLocation> order = Comparator
+                .comparing((ItemLocation location) -> location.realm().getRealmName())
+                .thenComparing(ItemLocation::layerId);
+        locations.replaceAll((item, list) -> {
+            list.sort(order);
+            return Collections.unmodifiableList(list);
+        });
+        return new GlobalItemIndex(locations);
+    }
+
+    // 获取可掉落指定物品的所有位置，没有则返回空列表
+    public List<ItemLocation> getLocations(String itemKey) {
+        return locationsByItem.getOrDefault(itemKey, Collections.emptyList());
+    }
+
+    // 物品所在的世界和层级
+    public record ItemLocation(Realm realm, String layerId, LayerIndex index) {}
+}
@@ -0,0 +1,155 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 界面选项目录：世界 -> 层级 -> 物品类型 -> 等级，世界加载后构建一次
+// 每一级都同时保存显示名和编码，下拉框选择变化时只需一次查找
+public class ItemCatalog {
+    // 宝石/手套/项链/徽章没有等级时显示"默認"
+    public static final String DEFAULT_LEVEL = "默認";
+
+    // 类型显示顺序；层级中没有的特殊类型也会列出（与原有界面一致）
+    private static final List<String> TYPE_ORDER = Arrays.stream(ItemType.values()).map(ItemType::getCode).toList();
+    private static final Map<String, String> FALLBACK_TYPE_NAMES = Map.of(
+            "gem", "宝石", "badge", "徽章", "glove", "手套", "necklace", "项链");
+
+    private final String realmName;
+    private final Map<String, LayerEntry> layersByDisplay;
+
+    private ItemCatalog(String realmName, Map<String, LayerEntry> layersByDisplay) {
+        this.realmName = realmName;
+        this.layersByDisplay = layersByDisplay;
+    }
+
+    public static ItemCatalog build(MaterialCalculator calculator, String realmName) {
+        List<Map.Entry<String, String>> layers = new ArrayList<>(calculator.getLayersForRealm(realmName).entrySet());
+        layers.sort(Comparator.comparing((Map.Entry<String, String> entry) -> layerNumber(entry.getKey()))
+                .thenComparing(Map.Entry::getKey));
+
+        Map<String, LayerEntry> layersByDisplay = new LinkedHashMap<>();
+        for (Map.Entry<String, String> layer : layers) {
+            List<ItemKey> items = calculator.getItemsInLayer(realmName, layer.getKey()).stream().map(ItemKey::parse).toList();
+            layersByDisplay.put(layer.getValue(), new LayerEntry(layer.getKey(), layer.getValue(), buildTypes(items)));
+        }
+        return new ItemCatalog(realmName, Collections.unmodifiableMap(layersByDisplay));
+    }
+
+    private static Map<String, TypeEntry> buildTypes(List<ItemKey> items) {
+        Set<String> typeCodes = new LinkedHashSet<>();
+        for (ItemKey item : items) {
+            typeCodes.add(item.typeCode());
+        }
+        List<String> orderedCodes = new ArrayList<>(TYPE_ORDER);
+        typeCodes.stream().filter(code -> !TYPE_ORDER.contains(code)).forEach(orderedCodes::add);
+
+        Map<String, TypeEntry> typesByDisplay = new LinkedHashMap<>();
+        for (String code : orderedCodes) {
+            String displayName;
+            if (typeCodes.contains(code)) {
+                displayName = ItemType.displayNameOf(code);
+            } else if (FALLBACK_TYPE_NAMES.containsKey(code)) {
+                displayName = FALLBACK_TYPE_NAMES.get(code);
+            } else {
+                continue;
+            }
+            typesByDisplay.put(displayName, new TypeEntry(code, displayName, buildLevels(code, items)));
+        }
+        return Collections.unmodifiableMap(typesByDisplay);
+    }
+
+    // 等级显示名 -> 物品键
+    private static Map<String, String> buildLevels(String typeCode, List<ItemKey> items) {
+        Map<String, String> levels = new LinkedHashMap<>();
+        Set<String> existingLevels = new LinkedHashSet<>();
+        for (ItemKey item : items) {
+            if (item.typeCode().equals(typeCode) && item.levelCode() != null) {
+                existingLevels.add(item.levelCode());
+            }
+        }
+
+        ItemType type = ItemType.fromCode(typeCode);
+        if (type != null && type.isGraded()) {
+            // 武器和装备按 下、中、上、極、極+ 排列，只列出实际存在的等级
+            for (ItemLevel level : ItemLevel.values()) {
+                if (existingLevels.contains(level.getCode())) {
+                    levels.put(level.getDisplayName(), typeCode + "_" + level.getCode());
+                }
+            }
+        } else {
+            for (String level : existingLevels) {
+                levels.putIfAbsent(ItemLevel.displayNameOf(level), typeCode + "_" + level);
+            }
+        }
+
+        // 宝石、徽章、手套和项链没有等级时使用基础类型键
+        if (levels.isEmpty() && FALLBACK_TYPE_NAMES.containsKey(typeCode)) {
+            levels.put(DEFAULT_LEVEL, typeCode);
+        }
+        return Collections.unmodifiableMap(levels);
+    }
+
+    private static int layerNumber(String layerId) {
+        try {
+            return Integer.parseInt(layerId.replace("layer_", ""));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    public String getRealmName() { return realmName; }
+
+    // 层级显示名（如"1c"），按层数排序
+    public List<String> getLayerDisplayNames() {
+        return new ArrayList<>(layersByDisplay.keySet());
+    }
+
+    // 按显示名查找层级，不存在时返回null
+    public LayerEntry getLayer(String displayName) {
+        return displayName == null ? null : layersByDisplay.get(displayName);
+    }
+
+    // 层级：编码、显示名和该层的物品类型
+    public static class LayerEntry {
+        private final String layerId;
+        private final String displayName;
+        private final Map<String, TypeEntry> typesByDisplay;
+
+        LayerEntry(String layerId, String displayName, Map<String, TypeEntry> typesByDisplay) {
+            this.layerId = layerId;
+            this.displayName = displayName;
+            this.typesByDisplay = typesByDisplay;
+        }
+
+        public String getLayerId() { return layerId; }
+        public String getDisplayName() { return displayName; }
+        public List<String> getTypeDisplayNames() { return new ArrayList<>(typesByDisplay.keySet()); }
+        public TypeEntry getType(String displayName) { return displayName == null ? null : typesByDisplay.get(displayName); }
+    }
+
+    // 物品类型：编码、显示名和可选等级
+    public static class TypeEntry {
+        private final String typeCode;
+        private final String displayName;
+        private final Map<String, String> itemKeysByLevel;
+
+        TypeEntry(String typeCode, String displayName, Map<String, String> itemKeysByLevel) {
+            this.typeCode = typeCode;
+            this.displayName = displayName;
+            this.itemKeysByLevel = itemKeysByLevel;
+        }
+
+        public String getTypeCode() { return typeCode; }
+        public String getDisplayName() { return displayName; }
+        public List<String> getLevelDisplayNames() { return new ArrayList<>(itemKeysByLevel.keySet()); }
+        // 按等级显示名获取物品键，不存在时返回null
+        public String getItemKey(String levelDisplayName) { return levelDisplayName == null ? null : itemKeysByLevel.get(levelDisplayName); }
+    }
+}
\ No newline at end of file
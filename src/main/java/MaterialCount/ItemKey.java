@@ -0,0 +1,29 @@
+package MaterialCount;
+
+// 解析后的物品键：类型编码 + 等级编码（如 weapon_extreme_plus -> weapon, extreme_plus）
+// 只在构建成本表和界面目录时解析一次，之后按编号或解析结果使用，不再反复拆分字符串
+public record ItemKey(String key, String typeCode, ItemType type, String levelCode, ItemLevel level) {
+
+    public static ItemKey parse(String key) {
+        int separator = key.indexOf('_');
+        String typeCode = separator < 0 ? key : key.substring(0, separator);
+        String levelCode = separator < 0 ? null : key.substring(separator + 1);
+        return new ItemKey(key, typeCode, ItemType.fromCode(typeCode), levelCode,
+                levelCode == null ? null : ItemLevel.fromCode(levelCode));
+    }
+
+    public String typeDisplayName() {
+        return type == null ? typeCode : type.getDisplayName();
+    }
+
+    // 等级显示名；没有等级或类型不分等级时为空字符串
+    public String levelDisplayName() {
+        if (levelCode == null || (type != null && !type.isGraded())) return "";
+        return level == null ? levelCode : level.getDisplayName();
+    }
+
+    // 结果中的物品名（如"武器 上"、"徽章 "）
+    public String displayName() {
+        return typeDisplayName() + " " + levelDisplayName();
+    }
+}
\ No newline at end of file
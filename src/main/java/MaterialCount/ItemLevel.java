@@ -0,0 +1,36 @@
+package MaterialCount;
+
+// 物品等级：JSON中的编码和繁体显示名，按从低到高声明
+public enum ItemLevel {
+    LOW("low", "下"),
+    MID("mid", "中"),
+    HIGH("high", "上"),
+    PREMIUM("premium", "極"),
+    EXTREME_PLUS("extreme_plus", "極+");
+
+    private final String code;
+    private final String displayName;
+
+    ItemLevel(String code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+
+    // 按编码查找，未知编码返回null
+    public static ItemLevel fromCode(String code) {
+        for (ItemLevel level : values()) {
+            if (level.code.equals(code)) return level;
+        }
+        return null;
+    }
+
+    // 显示名，未知编码原样返回
+    public static String displayNameOf(String code) {
+        ItemLevel level = fromCode(code);
+        return level == null ? code : level.displayName;
+    }
+
+    // Getters
+    public String getCode() { return code; }
+    public String getDisplayName() { return displayName; }
+}
\ No newline at end of file
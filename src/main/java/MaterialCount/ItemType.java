@@ -0,0 +1,41 @@
+package MaterialCount;
+
+// 物品类型：JSON中的编码和繁体显示名；按界面下拉框的显示顺序声明
+public enum ItemType {
+    WEAPON("weapon", "武器", true),
+    EQUIPMENT("equipment", "裝備", true),
+    GEM("gem", "寶石", false),
+    GLOVE("glove", "手套", false),
+    NECKLACE("necklace", "項鏈", false),
+    BADGE("badge", "徽章", false);
+
+    private final String code;
+    private final String displayName;
+    // 是否按 下/中/上/極/極+ 分等级；宝石、手套、项链、徽章的结果不显示等级
+    private final boolean graded;
+
+    ItemType(String code, String displayName, boolean graded) {
+        this.code = code;
+        this.displayName = displayName;
+        this.graded = graded;
+    }
+
+    // 按编码查找，未知编码返回null
+    public static ItemType fromCode(String code) {
+        for (ItemType type : values()) {
+            if (type.code.equals(code)) return type;
+        }
+        return null;
+    }
+
+    // 显示名，未知编码原样返回
+    public static String displayNameOf(String code) {
+        ItemType type = fromCode(code);
+        return type == null ? code : type.displayName;
+    }
+
+    // Getters
+    public String getCode() { return code; }
+    public String getDisplayName() { return displayName; }
+    public boolean isGraded() { return graded; }
+}
\ No newline at end of file
@@ -1,55 +1,132 @@
 package MaterialCount;
 
-import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.net.URL;
 
 public class JsonLoader {
-    private static final Gson gson = new Gson();
+    // 可编辑的数据目录，其中的文件优先于内置资源
+    private static final String DATA_DIR_PROPERTY = "materialcount.data.dir";
 
     public static Realm loadRealm(String fileName) {
         try {
-            // 尝试多种路径格式加载资源
-            InputStream inputStream = null;
-            URL resourceUrl = null;
-            
-            // 尝试直接使用文件名
-            resourceUrl = JsonLoader.class.getResource(fileName);
-            if (resourceUrl != null) {
-                inputStream = resourceUrl.openStream();
-                System.out.println("成功找到资源: " + resourceUrl.getPath());
-            }
-            
-            // 尝试在MaterialCount包中查找
-            if (inputStream == null) {
-                resourceUrl = JsonLoader.class.getResource("/MaterialCount" + (fileName.startsWith("/") ? "" : "/") + fileName);
-                if (resourceUrl != null) {
-                    inputStream = resourceUrl.openStream();
-                    System.out.println("成功找到资源: " + resourceUrl.getPath());
+            return parseRealm(openResource(fileName));
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to load realm data from " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    // 从已读取的JSON字节解析世界数据
+    public static Realm loadRealm(String fileName, byte[] json) {
+        try {
+            return parseRealm(new ByteArrayInputStream(json));
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to load realm data from " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    // 只读取世界名称（realm_name），不解析层级数据
+    public static String peekRealmName(String fileName) {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(openResource(fileName), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("realm_name".equals(reader.nextName())) {
+                    return reader.nextString();
                 }
+                reader.skipValue();
             }
-            
-            // 尝试在根目录查找
-            if (inputStream == null) {
-                resourceUrl = JsonLoader.class.getResource("/" + fileName);
-                if (resourceUrl != null) {
-                    inputStream = resourceUrl.openStream();
-                    System.out.println("成功找到资源: " + resourceUrl.getPath());
-                }
+            throw new IllegalStateException("缺少 realm_name 字段");
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read realm name from " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    // 读取资源文件的全部字节
+    public static byte[] readResource(String fileName) throws IOException {
+        try (InputStream inputStream = openResource(fileName)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    // 流式解析为紧凑模型（setLayers 时同时建立层级索引）
+    private static Realm parseRealm(InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return RealmParser.parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            EngineMetrics.recordError("parseJson", e);
+            throw e;
+        } finally {
+            EngineMetrics.PARSE.recordSince(start);
+        }
+    }
+
+    // 获取数据文件所在的文件系统路径（用于监听修改），资源在jar等不可监听的位置时返回null
+    public static Path getDataFile(String fileName) {
+        String relative = fileName.startsWith("/") ? fileName.substring(1) : fileName;
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        if (dataDir != null) {
+            return Paths.get(dataDir).resolve(relative);
+        }
+        try {
+            URL resourceUrl = JsonLoader.class.getResource("/" + relative);
+            if (resourceUrl != null && "file".equals(resourceUrl.getProtocol())) {
+                return Paths.get(resourceUrl.toURI());
             }
-            
-            if (inputStream == null) {
-                throw new RuntimeException("无法找到资源文件: " + fileName + ". 请检查文件是否存在于正确位置。");
+        } catch (Exception e) {
+            // 无法转换为文件路径时视为不可监听
+        }
+        return null;
+    }
+
+    private static InputStream openResource(String fileName) throws IOException {
+        // 尝试多种路径格式加载资源
+        InputStream inputStream = null;
+        URL resourceUrl = null;
+
+        // 优先使用数据目录中的文件
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        if (dataDir != null) {
+            Path dataFile = Paths.get(dataDir).resolve(fileName.startsWith("/") ? fileName.substring(1) : fileName);
+            if (Files.isRegularFile(dataFile)) {
+                return Files.newInputStream(dataFile);
             }
-            
-            try (InputStreamReader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
-                return gson.fromJson(reader, Realm.class);
+        }
+        
+        // 尝试直接使用文件名
+        resourceUrl = JsonLoader.class.getResource(fileName);
+        if (resourceUrl != null) {
+            inputStream = resourceUrl.openStream();
+        }
+        
+        // 尝试在MaterialCount包中查找
+        if (inputStream == null) {
+            resourceUrl = JsonLoader.class.getResource("/MaterialCount" + (fileName.startsWith("/") ? "" : "/") + fileName);
+            if (resourceUrl != null) {
+                inputStream = resourceUrl.openStream();
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to load realm data from " + fileName + ": " + e.getMessage());
         }
+        
+        // 尝试在根目录查找
+        if (inputStream == null) {
+            resourceUrl = JsonLoader.class.getResource("/" + fileName);
+            if (resourceUrl != null) {
+                inputStream = resourceUrl.openStream();
+            }
+        }
+        
+        if (inputStream == null) {
+            throw new RuntimeException("无法找到资源文件: " + fileName + ". 请检查文件是否存在于正确位置。");
+        }
+        return inputStream;
     }
 }
\ No newline at end of file
@@ -16,13 +16,35 @@ public class Layer {
 
     private Map<String, Monster> boss;
 
+    private transient boolean frozen;
+
     // Getters and setters
     public Map<String, Monster> getSmallMonsters() { return smallMonsters; }
-    public void setSmallMonsters(Map<String, Monster> smallMonsters) { this.smallMonsters = smallMonsters; }
+    public void setSmallMonsters(Map<String, Monster> smallMonsters) { Realm.requireMutable(frozen); this.smallMonsters = smallMonsters; }
     public Map<String, Monster> getEliteSmallMonsters() { return eliteSmallMonsters; }
-    public void setEliteSmallMonsters(Map<String, Monster> eliteSmallMonsters) { this.eliteSmallMonsters = eliteSmallMonsters; }
+    public void setEliteSmallMonsters(Map<String, Monster> eliteSmallMonsters) { Realm.requireMutable(frozen); this.eliteSmallMonsters = eliteSmallMonsters; }
     public Map<String, Monster> getEliteMonsters() { return eliteMonsters; }
-    public void setEliteMonsters(Map<String, Monster> eliteMonsters) { this.eliteMonsters = eliteMonsters; }
+    public void setEliteMonsters(Map<String, Monster> eliteMonsters) { Realm.requireMutable(frozen); this.eliteMonsters = eliteMonsters; }
     public Map<String, Monster> getBoss() { return boss; }
-    public void setBoss(Map<String, Monster> boss) { this.boss = boss; }
+    public void setBoss(Map<String, Monster> boss) { Realm.requireMutable(frozen); this.boss = boss; }
+
+    // 由 Realm.freeze 调用
+    void freeze() {
+        if (frozen) return;
+        smallMonsters = freezeMonsters(smallMonsters);
+        eliteSmallMonsters = freezeMonsters(eliteSmallMonsters);
+        eliteMonsters = freezeMonsters(eliteMonsters);
+        boss = freezeMonsters(boss);
+        frozen = true;
+    }
+
+    private static Map<String, Monster> freezeMonsters(Map<String, Monster> monsters) {
+        Map<String, Monster> frozen = CompactMap.copyOf(monsters);
+        if (frozen != null) {
+            for (Monster monster : frozen.values()) {
+                if (monster != null) monster.freeze();
+            }
+        }
+        return frozen;
+    }
 }
\ No newline at end of file
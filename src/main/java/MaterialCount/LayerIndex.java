@@ -0,0 +1,73 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 层级倒排索引：物品键 -> 掉落该物品的怪物列表，加载世界时构建一次
+// 掉落字符串在构建时解析为 Drop，格式错误的数据在加载阶段即被拒绝；同时按怪物坐标建立k-d树
+public class LayerIndex {
+    private final Map<String, List<DropSource>> sourcesByItem = new LinkedHashMap<>();
+    private MonsterKdTree spatialIndex;
+
+    public static LayerIndex build(Layer layer) {
+        LayerIndex index = new LayerIndex();
+        // 保持原有的遍历顺序：小怪 -> 精英小怪 -> 精英怪 -> Boss
+        index.addMonsters(layer.getSmallMonsters(), "small_monsters");
+        index.addMonsters(layer.getEliteSmallMonsters(), "elite_small_monsters");
+        index.addMonsters(layer.getEliteMonsters(), "elite_monsters");
+        index.addMonsters(layer.getBoss(), "boss");
+        index.sourcesByItem.replaceAll((item, sources) -> Collections.unmodifiableList(sources));
+        index.spatialIndex = MonsterKdTree.build(layer);
+        return index;
+    }
+
+    private void addMonsters(Map<String, Monster> monsters, String category) {
+        if (monsters == null) return;
+        for (Map.Entry<String, Monster> entry : monsters.entrySet()) {
+            Monster monster = entry.getValue();
+            if (monster.getDrops() == null) continue;
+            for (Map.Entry<String, String> drop : monster.getDrops().entrySet()) {
+                Drop parsed;
+                try {
+                    parsed = Drop.parse(drop.getValue());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(entry.getKey() + " 的掉落 " + drop.getKey() + " 格式错误: " + e.getMessage(), e);
+                }
+                sourcesByItem.computeIfAbsent(drop.getKey(), k -> new ArrayList<>())
+                        .add(new DropSource(entry.getKey(), category, monster, parsed));
+            }
+        }
+    }
+
+    // 获取掉落指定物品的所有怪物，没有则返回空列表
+    public List<DropSource> getSources(String itemKey) {
+        return sourcesByItem.getOrDefault(itemKey, Collections.emptyList());
+    }
+
+    // 距离 from 最近的掉落指定物品的来源，没有（或来源都没有坐标）时返回null
+    public DropSource nearestSource(String itemKey, Position from) {
+        List<DropSource> sources = getSources(itemKey);
+        Set<String> names = new HashSet<>();
+        for (DropSource source : sources) names.add(source.getMonsterName());
+        int nearest = spatialIndex.nearest(from, i -> names.contains(spatialIndex.getName(i)));
+        if (nearest < 0) return null;
+        for (DropSource source : sources) {
+            if (source.getMonsterName().equals(spatialIndex.getName(nearest))) return source;
+        }
+        return null;
+    }
+
+    public MonsterKdTree getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    // 获取该层级所有可掉落的物品键
+    public Set<String> getItemKeys() {
+        return Collections.unmodifiableSet(sourcesByItem.keySet());
+    }
+}
@@ -1,23 +1,22 @@
 package MaterialCount;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 public class Main extends Application {
-    private static Map<String, Realm> realms = new HashMap<>();
     private static MaterialCalculator calculator;
+    private RealmReloader reloader;
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        // 加载所有世界数据
-        loadRealmData();
-        calculator = new MaterialCalculator(realms);
+        // 世界数据在后台并行加载，不阻塞窗口显示
+        calculator = new MaterialCalculator();
+        EngineMetrics.register(calculator);
+        RealmLoader realmLoader = new RealmLoader(calculator, RealmLoader.DEFAULT_REALM_FILES);
 
         // 加载FXML界面
         FXMLLoader loader = new FXMLLoader(getClass().getResource("calculator.fxml"));
@@ -25,26 +24,24 @@ public class Main extends Application {
 
         // 设置控制器并传递计算器实例
         CalculatorController controller = loader.getController();
-        controller.setCalculator(calculator);
+        controller.setCalculator(calculator, realmLoader);
 
         // 配置舞台
         primaryStage.setTitle("材料计算器");
-        primaryStage.setScene(new Scene(root, 800, 600));
+        primaryStage.setScene(new Scene(root, 800, 760));
         primaryStage.show();
+
+        // 数据文件可编辑时监听修改并热重载
+        reloader = new RealmReloader(realmLoader, realmName -> Platform.runLater(() -> controller.realmReloaded(realmName)));
+        if (reloader.isWatching()) {
+            reloader.start();
+        }
     }
 
-    // 加载所有世界数据
-    private void loadRealmData() {
-        try {
-            // 加载所有世界数据
-            String[] realmFiles = {"/dream.json", "/abyss.json", "/fairy.json", "/main_world.json", "/P&H.json"};
-            for (String file : realmFiles) {
-                Realm realm = JsonLoader.loadRealm(file);
-                realms.put(realm.getRealmName(), realm);
-            }
-        } catch (Exception e) {
-            System.err.println("数据加载失败: " + e.getMessage());
-            e.printStackTrace();
+    @Override
+    public void stop() throws Exception {
+        if (reloader != null) {
+            reloader.close();
         }
     }
 
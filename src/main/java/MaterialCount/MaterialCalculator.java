@@ -3,28 +3,76 @@ package MaterialCount;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class MaterialCalculator {
-    private final Map<String, Realm> realms;
+    // 一次数量扫描最多的点数
+    public static final int MAX_SWEEP_POINTS = 100_000;
 
+    // 当前版本的世界注册表：更新时整体替换，读取方取一次引用即可，无需加锁，进行中的计算继续使用旧版本
+    private volatile RealmRegistry registry;
+
+    public MaterialCalculator() {
+        this(Collections.emptyMap());
+    }
+
+    // 传入的世界会被冻结，之后不能再修改
     public MaterialCalculator(Map<String, Realm> realms) {
-        this.realms = realms;
+        this.registry = buildRegistry(0, realms);
+    }
+
+    // 当前版本的注册表；需要在多次查询间看到同一份数据时，取一次后直接在注册表上读取
+    public RealmRegistry getRegistry() {
+        return registry;
+    }
+
+    // 获取当前版本中的世界，不存在时返回null
+    public Realm getRealm(String realmName) {
+        return registry.getRealm(realmName);
+    }
+
+    // 发布新的世界数据：替换 oldName 对应的世界（可为null），并以新世界自身的名称加入
+    // 新世界在发布前被冻结
+    public synchronized void publishRealm(String oldName, Realm realm) {
+        RealmRegistry current = registry;
+        Map<String, Realm> next = new HashMap<>(current.getRealms());
+        if (oldName != null) next.remove(oldName);
+        next.put(realm.getRealmName(), realm);
+        registry = buildRegistry(current.getVersion() + 1, next);
+    }
+
+    private RealmRegistry buildRegistry(long version, Map<String, Realm> realms) {
+        realms.values().forEach(Realm::freeze);
+        return new RealmRegistry(version, realms, buildCostTable(realms));
     }
 
-    // 获取所有可用世界名称
+    // 当前版本的单位成本表（可导出）
+    public CostTable getCostTable() {
+        return registry.getCostTable();
+    }
+
+    // 层级可写作 layer_3 或 3c（界面上的显示名），统一为层级ID
+    public static String normalizeLayer(String layer) {
+        if (layer.endsWith("c") && !layer.startsWith("layer_")) {
+            return "layer_" + layer.substring(0, layer.length() - 1);
+        }
+        return layer;
+    }
+
+    // 获取所有可用世界名称（按名称排序，只读）
     public List<String> getRealmNames() {
-        return new ArrayList<>(realms.keySet());
+        return registry.getRealmNames();
     }
 
     // 获取指定世界的所有层级（格式化显示名）
     public Map<String, String> getLayersForRealm(String realmName) {
-        Realm realm = realms.get(realmName);
+        Realm realm = registry.getRealm(realmName);
         if (realm == null) return Collections.emptyMap();
         return realm.getLayers().keySet().stream()
                 .collect(Collectors.toMap(
@@ -35,256 +83,271 @@ public class MaterialCalculator {
 
     // 获取指定世界层级的所有可用物品
     public List<String> getItemsInLayer(String realmName, String layerId) {
-        Realm realm = realms.get(realmName);
+        Realm realm = registry.getRealm(realmName);
         if (realm == null) return Collections.emptyList();
-        Layer layer = realm.getLayers().get(layerId);
-        if (layer == null) return Collections.emptyList();
-
-        Set<String> items = new HashSet<>();
-        addItemsFromMonsters(layer.getSmallMonsters(), items);
-        addItemsFromMonsters(layer.getEliteSmallMonsters(), items);
-        addItemsFromMonsters(layer.getEliteMonsters(), items);
-        addItemsFromMonsters(layer.getBoss(), items);
-        List<String> filteredItems = new ArrayList<>(items); // 移除特殊类型过滤，保留所有等级
-        return filteredItems;
-    }
-
-    private void addItemsFromMonsters(Map<String, Monster> monsters, Set<String> items) {
-        if (monsters == null) return;
-        for (Monster monster : monsters.values()) {
-            if (monster.getDrops() != null) {
-                items.addAll(monster.getDrops().keySet());
-            }
-        }
+        LayerIndex index = realm.getLayerIndex(layerId);
+        if (index == null) return Collections.emptyList();
+        return new ArrayList<>(index.getItemKeys()); // 移除特殊类型过滤，保留所有等级
     }
 
     // 核心计算方法
     public CalculationResult calculate(String realmName, String layerId, String itemKey, int quantity) {
-        Realm realm = realms.get(realmName);
-        Layer layer = realm.getLayers().get(layerId);
-        if (layer == null) throw new IllegalArgumentException("无效层级: " + layerId);
-
-        // 收集所有掉落目标物品的怪物
-        List<MonsterInfo> sources = collectMonsterSources(layer, itemKey);
-        if (sources.isEmpty()) throw new IllegalArgumentException("未找到掉落物品的怪物: " + itemKey);
+        return calculate(registry, realmName, layerId, itemKey, quantity);
+    }
 
-        // 解析物品类型和等级
-        ItemInfo itemInfo = parseItemKey(itemKey);
-        // 解析所有来源的掉落信息并汇总
-        int totalDropQuantity = 0;
-        boolean needsRefinement = false;
-        for (MonsterInfo source : sources) {
-            DropInfo di = parseDropInfo(source.getMonster().getDrops().get(itemKey));
-            totalDropQuantity += di.quantity;
-            needsRefinement |= di.needsRefinement;
+    // 在指定版本的注册表上计算（见 getRegistry），与同一注册表上的其他读取看到同一份数据
+    public CalculationResult calculate(RealmRegistry registry, String realmName, String layerId, String itemKey, int quantity) {
+        long start = System.nanoTime();
+        try {
+            Realm realm = registry.getRealm(realmName);
+            if (realm == null) throw new IllegalArgumentException("无效世界: " + realmName);
+            if (realm.getLayerIndex(layerId) == null) throw new IllegalArgumentException("无效层级: " + layerId);
+            return calculate(registry.getCostTable(), realmName, layerId, itemKey, quantity);
+        } catch (RuntimeException e) {
+            EngineMetrics.recordError("calculate", e);
+            throw e;
+        } finally {
+            EngineMetrics.CALCULATE.recordSince(start);
         }
-        DropInfo dropInfo = new DropInfo(totalDropQuantity, needsRefinement);
-        // 计算总未精炼材料
-        int totalUnrefined = quantity * dropInfo.quantity;
-        // 获取堆叠规则（16g标记）
-        boolean is16g = sources.stream().anyMatch(m -> m.getMonster().is16g());
-        // 计算堆叠信息
-        StackInfo stackInfo = calculateStacks(totalUnrefined, is16g);
-
-        // 构建计算结果
-        CalculationResult result = new CalculationResult();
-        result.setRealmName(realm.getRealmName());
-        result.setLayerName(layerId.replace("layer_", "") + "c");
-        result.setItemName(itemInfo.type + " " + itemInfo.level);
-        result.setQuantity(quantity);
-        result.setSources(sources.stream()
-                .map(m -> {
-                    DropInfo di = parseDropInfo(m.getMonster().getDrops().get(itemKey));
-                    return new MaterialSource(m.getMonsterName(), m.getMonster().getPosition(), di.quantity);
-                })
-                .collect(Collectors.toList()));
-        result.setUnrefinedTotal(stackInfo.toString() + (dropInfo.needsRefinement ? " (需精炼)" : " (不用精炼)"));
+    }
 
-        // 处理精炼成本
-        if (dropInfo.needsRefinement) {
-            handleRefinementCost(result, sources, totalUnrefined, dropInfo.quantity);
+    // 不分配对象的计算：结果写入调用方复用的 sink，数值与 calculate 相同；无效输入时抛出 IllegalArgumentException
+    // 稳态下（sink 的货币数组足够大后）整条路径没有分配，适合高频调用的嵌入场景
+    public void calculateInto(String realmName, String layerId, String itemKey, int quantity, ResultSink sink) {
+        long start = System.nanoTime();
+        try {
+            CostTable table = registry.getCostTable();
+            int row = table.rowOf(realmName, layerId, itemKey);
+            if (row < 0) throw invalidQuery(realmName, layerId, itemKey);
+            sink.set(table, row, quantity);
+        } catch (RuntimeException e) {
+            EngineMetrics.recordError("calculate", e);
+            throw e;
+        } finally {
+            EngineMetrics.CALCULATE.recordSince(start);
         }
+    }
 
-        return result;
+    // 查不到行时按 calculate 的顺序判断原因
+    private IllegalArgumentException invalidQuery(String realmName, String layerId, String itemKey) {
+        Realm realm = getRealm(realmName);
+        if (realm == null) return new IllegalArgumentException("无效世界: " + realmName);
+        if (realm.getLayerIndex(layerId) == null) return new IllegalArgumentException("无效层级: " + layerId);
+        return new IllegalArgumentException("未找到掉落物品的怪物: " + itemKey);
     }
 
-    // 收集掉落目标物品的怪物信息
-    private List<MonsterInfo> collectMonsterSources(Layer layer, String itemKey) {
-        List<MonsterInfo> sources = new ArrayList<>();
-        addMonstersFromMap(layer.getSmallMonsters(), "small_monsters", itemKey, sources);
-        addMonstersFromMap(layer.getEliteSmallMonsters(), "elite_small_monsters", itemKey, sources);
-        addMonstersFromMap(layer.getEliteMonsters(), "elite_monsters", itemKey, sources);
-        addMonstersFromMap(layer.getBoss(), "boss", itemKey, sources);
-        return sources;
+    // 数量扫描：from 到 to（含）之间每隔 step 取一个数量，一次算出整条成本曲线
+    public CostCurve sweep(String realmName, String layerId, String itemKey, int from, int to, int step) {
+        if (from <= 0 || to < from || step <= 0) {
+            throw new IllegalArgumentException("无效数量范围: " + from + "-" + to + ", 步长 " + step);
+        }
+        long points = (to - (long) from) / step + 1;
+        if (points > MAX_SWEEP_POINTS) throw new IllegalArgumentException("扫描点数过多: " + points);
+        int[] quantities = new int[(int) points];
+        for (int i = 0; i < quantities.length; i++) quantities[i] = from + i * step;
+        return sweep(realmName, layerId, itemKey, quantities);
     }
 
-    private void addMonstersFromMap(Map<String, Monster> monsters, String category, String itemKey, List<MonsterInfo> sources) {
-        if (monsters == null) return;
-        for (Map.Entry<String, Monster> entry : monsters.entrySet()) {
-            Monster monster = entry.getValue();
-            if (monster.getDrops() != null && monster.getDrops().containsKey(itemKey)) {
-                sources.add(new MonsterInfo(entry.getKey(), monster));
+    // 数量扫描：按给定的数量（如 10, 100, 1000）计算成本曲线
+    public CostCurve sweep(String realmName, String layerId, String itemKey, int[] quantities) {
+        try {
+            if (quantities.length > MAX_SWEEP_POINTS) throw new IllegalArgumentException("扫描点数过多: " + quantities.length);
+            int max = 0;
+            for (int quantity : quantities) {
+                if (quantity <= 0) throw new IllegalArgumentException("数量必须为正数: " + quantity);
+                max = Math.max(max, quantity);
+            }
+            CostTable table = registry.getCostTable();
+            int row = table.rowOf(realmName, layerId, itemKey);
+            if (row < 0) throw invalidQuery(realmName, layerId, itemKey);
+            // 与 calculate 的数值范围一致：材料总数必须能用 int 表示
+            if ((long) max * table.getDropQuantity(row) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("数量过大: " + max);
             }
+            return new CostCurve(table, row, quantities.clone());
+        } catch (RuntimeException e) {
+            EngineMetrics.recordError("sweep", e);
+            throw e;
         }
     }
 
-    // 解析物品键（如weapon_low -> 武器 下）
-    private ItemInfo parseItemKey(String itemKey) {
-        String[] parts = itemKey.split("_");
-        String type = convertItemType(parts[0]);
-        String level = parts.length > 1 ? convertLevel(parts[1]) : "";
-        // 特殊物品处理（宝石/手套/项链/徽章默认显示等级）
-        if (Arrays.asList("寶石", "手套", "項鏈", "徽章").contains(type)) {
-            return new ItemInfo(type, "");
+    // 批量计算（购物清单）：各行并行计算，同一世界层级的行共享同一次有效性检查
+    public BatchResult calculateBatch(List<BatchRequest> requests) {
+        long start = System.nanoTime();
+        // 整个批次使用同一个版本的注册表
+        RealmRegistry registry = this.registry;
+        CostTable table = registry.getCostTable();
+        // 按世界+层级分组，每组只检查一次
+        Map<String, String> lookupErrors = new HashMap<>();
+        for (BatchRequest request : requests) {
+            String groupKey = request.getRealmName() + "/" + request.getLayerId();
+            if (lookupErrors.containsKey(groupKey)) continue;
+            Realm realm = registry.getRealm(request.getRealmName());
+            if (realm == null) {
+                lookupErrors.put(groupKey, "无效世界: " + request.getRealmName());
+            } else if (realm.getLayerIndex(request.getLayerId()) == null) {
+                lookupErrors.put(groupKey, "无效层级: " + request.getLayerId());
+            } else {
+                lookupErrors.put(groupKey, null);
+            }
         }
-        return new ItemInfo(type, level);
-    }
 
-    // 物品类型转换
-    public String convertItemType(String typeCode) {
-        return switch (typeCode) {
-            case "weapon" -> "武器";
-            case "equipment" -> "裝備";
-            case "gem" -> "寶石";
-            case "glove" -> "手套";
-            case "necklace" -> "項鏈";
-            case "badge" -> "徽章";
-            default -> typeCode;
-        };
+        // 各行互不依赖，并行计算
+        CalculationResult[] results = new CalculationResult[requests.size()];
+        String[] errors = new String[requests.size()];
+        IntStream.range(0, requests.size()).parallel().forEach(i -> {
+            BatchRequest request = requests.get(i);
+            String error = lookupErrors.get(request.getRealmName() + "/" + request.getLayerId());
+            if (error != null) {
+                errors[i] = error;
+                return;
+            }
+            try {
+                results[i] = calculate(table, request.getRealmName(), request.getLayerId(),
+                        request.getItemKey(), request.getQuantity());
+            } catch (Exception e) {
+                EngineMetrics.recordError("calculateBatch", e);
+                errors[i] = e.getMessage();
+            }
+        });
+
+        // 汇总所有成功行的材料、精炼次数和货币
+        BatchResult batch = new BatchResult(Arrays.asList(results), Arrays.asList(errors));
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) {
+                batch.add(requests.get(i), results[i]);
+            }
+        }
+        EngineMetrics.CALCULATE_BATCH.recordSince(start);
+        return batch;
     }
 
-    // 货币名称转换为繁体中文
-    public String convertCurrencyName(String currencyCode) {
-        return switch (currencyCode) {
-            case "silver" -> "銀元";
-            case "copper" -> "銅幣";
-            case "gold" -> "金元";
-            case "dream_coin" -> "夢元";
-            default -> currencyCode;
-        };
+    // 跨世界比较：并行计算所有可掉落该物品的(世界, 层级)，按货币成本从低到高排序
+    // 各货币权重均为1（见 FarmOption.CHEAPEST_FIRST）；货币价值不同时使用带权重的重载
+    public List<FarmOption> rankFarmingLocations(String itemKey, int quantity) {
+        return rankFarmingLocations(itemKey, quantity, Map.of());
     }
 
-    // 等级转换
-    public String convertLevel(String levelCode) {
-        return switch (levelCode) {
-            case "low" -> "下";
-            case "mid" -> "中";
-            case "high" -> "上";
-            case "premium" -> "極";
-            case "extreme_plus" -> "極+";
-            default -> levelCode;
-        };
+    // currencyWeights: 货币编码 -> 权重，未列出的货币权重为1（见 FarmOption.cheapestFirst）
+    // 通过全局物品索引定位，不会访问无法掉落该物品的层级
+    public List<FarmOption> rankFarmingLocations(String itemKey, int quantity, Map<String, Double> currencyWeights) {
+        Comparator<FarmOption> order = FarmOption.cheapestFirst(currencyWeights);
+        long start = System.nanoTime();
+        try {
+            RealmRegistry registry = this.registry;
+            CostTable table = registry.getCostTable();
+            return registry.getItemIndex().getLocations(itemKey).parallelStream()
+                    .map(location -> new FarmOption(location.realm().getRealmName(), location.layerId(),
+                            calculate(table, location.realm().getRealmName(), location.layerId(), itemKey, quantity)))
+                    .sorted(order)
+                    .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            EngineMetrics.recordError("rankFarmingLocations", e);
+            throw e;
+        } finally {
+            EngineMetrics.RANK.recordSince(start);
+        }
     }
 
-    // 解析掉落信息（数量和精炼需求）
-    private DropInfo parseDropInfo(String dropValue) {
-        boolean needsRefinement = !dropValue.endsWith("N");
-        int quantity = Integer.parseInt(dropValue.replace("N", ""));
-        return new DropInfo(quantity, needsRefinement);
+    private CalculationResult calculate(CostTable table, String realmName, String layerId, String itemKey, int quantity) {
+        int row = table.rowOf(realmName, layerId, itemKey);
+        if (row < 0) throw new IllegalArgumentException("未找到掉落物品的怪物: " + itemKey);
+        return buildResult(table, row, quantity);
     }
 
-    // 计算堆叠信息（组和剩余数量）
-    private StackInfo calculateStacks(int totalQuantity, boolean is16g) {
-        int groupSize = is16g ? 16 : 64;
-        int groups = totalQuantity / groupSize;
-        int remaining = totalQuantity % groupSize;
-        return new StackInfo(groups, remaining);
+    // 为快照中每个(世界, 层级, 物品)计算单位成本，按世界、层级、物品排序
+    private CostTable buildCostTable(Map<String, Realm> realms) {
+        List<CostTable.Row> rows = new ArrayList<>();
+        new TreeMap<>(realms).forEach((realmName, realm) -> {
+            for (String layerId : new TreeMap<>(realm.getLayers()).keySet()) {
+                LayerIndex index = realm.getLayerIndex(layerId);
+                if (index == null) continue;
+                index.getItemKeys().stream().sorted()
+                        .forEach(itemKey -> rows.add(buildRow(realmName, layerId, index.getSources(itemKey), itemKey)));
+            }
+        });
+        return new CostTable(rows);
     }
 
-    // 处理精炼成本计算
-    private void handleRefinementCost(CalculationResult result, List<MonsterInfo> sources, int totalUnrefined, int perItemQuantity) {
+    // 计算单位成本（每个物品的材料、精炼和货币成本）
+    private CostTable.Row buildRow(String realmName, String layerId, List<DropSource> sources, String itemKey) {
+        // 汇总所有来源的掉落信息
+        int totalDropQuantity = 0;
+        boolean needsRefinement = false;
+        for (DropSource source : sources) {
+            totalDropQuantity += source.getDrop().quantity();
+            needsRefinement |= source.getDrop().needsRefinement();
+        }
+        // 获取堆叠规则（16g标记）
+        boolean is16g = sources.stream().anyMatch(m -> m.getMonster().is16g());
+
         // 汇总所有怪物的精炼成本
         int totalRefineMaterial = 0;
         Map<String, Integer> totalCurrency = new HashMap<>();
-        for (MonsterInfo source : sources) {
+        for (DropSource source : sources) {
             CurrencyCost cost = source.getMonster().getCurrencyCost();
             if (cost == null) continue;
             totalRefineMaterial += cost.getRefineCostMaterial();
+            if (cost.getRefineCostCurrency() == null) continue;
             cost.getRefineCostCurrency().forEach((k, v) -> 
                 totalCurrency.put(k, totalCurrency.getOrDefault(k, 0) + v)
             );
         }
-        if (totalRefineMaterial == 0 && totalCurrency.isEmpty()) return;
 
-        int refineCount = totalUnrefined / totalRefineMaterial;
-        Map<String, Integer> currency = totalCurrency;
-
-        // 计算精炼材料需求
-        boolean is16g = sources.stream().anyMatch(m -> m.getMonster().is16g());
-        StackInfo refineStack = calculateStacks(refineCount, is16g);
-        result.setRefineMaterialPerTime(refineStack.toString());
-
-        // 计算单次精炼货币成本
-        StringBuilder perRefinementCurrencySummary = new StringBuilder();
-        totalCurrency.forEach((type, amount) -> {
-            if (perRefinementCurrencySummary.length() > 0) {
-                perRefinementCurrencySummary.append(", ");
-            }
-            perRefinementCurrencySummary.append(convertCurrencyName(type)).append(": " ).append(amount);
-        });
-        result.setPerRefinementCurrencyCost(perRefinementCurrencySummary.toString());
-        
-        // 计算总货币成本
-        StringBuilder currencySummary = new StringBuilder();
-        currency.forEach((type, amount) -> {
-            int total = amount * refineCount; // 乘以精炼次数，随数量变化
-            if (currencySummary.length() > 0) {
-                currencySummary.append(", ");
-            }
-            currencySummary.append(convertCurrencyName(type)).append(": " ).append(total);
-        });
-        result.setCurrencyCost(currencySummary.toString());
+        List<MaterialSource> materialSources = sources.stream()
+                .map(m -> new MaterialSource(m.getMonsterName(), m.getMonster().getPosition(), m.getDrop().quantity(),
+                        refineCurrencyOf(m.getMonster())))
+                .collect(Collectors.toList());
+        return new CostTable.Row(realmName, layerId, itemKey, layerId.replace("layer_", "") + "c",
+                ItemKey.parse(itemKey).displayName(), Collections.unmodifiableList(materialSources),
+                totalDropQuantity, needsRefinement, is16g, totalRefineMaterial, Collections.unmodifiableMap(totalCurrency));
     }
 
-    // 内部数据类：物品信息
-    private static class ItemInfo {
-        String type;
-        String level;
-
-        ItemInfo(String type, String level) {
-            this.type = type;
-            this.level = level;
-        }
+    private static Map<String, Integer> refineCurrencyOf(Monster monster) {
+        CurrencyCost cost = monster.getCurrencyCost();
+        if (cost == null || cost.getRefineCostCurrency() == null) return Collections.emptyMap();
+        return cost.getRefineCostCurrency();
     }
 
-    // 内部数据类：掉落信息
-    private static class DropInfo {
-        int quantity;
-        boolean needsRefinement;
+    // 由成本表中的一行按数量放大得到计算结果（只填数值，显示文字由结果按需生成）
+    private CalculationResult buildResult(CostTable table, int row, int quantity) {
+        CalculationResult result = new CalculationResult();
+        result.setRealmName(table.getRealmName(row));
+        result.setLayerName(table.getLayerName(row));
+        result.setItemName(table.getItemName(row));
+        result.setQuantity(quantity);
+        result.setSources(table.getSources(row));
+        result.setUnrefinedCount(table.unrefinedFor(row, quantity));
+        result.setStackSize(stackSize(table.is16g(row)));
+        result.setNeedsRefinement(table.needsRefinement(row));
 
-        DropInfo(int quantity, boolean needsRefinement) {
-            this.quantity = quantity;
-            this.needsRefinement = needsRefinement;
+        // 处理精炼成本
+        if (table.hasRefineCost(row)) {
+            result.setHasRefineCost(true);
+            result.setRefineCount(table.refineCountFor(row, quantity));
+            result.setPerRefinementCurrency(table.getCurrencyMap(row));
         }
-    }
-
-    // 内部数据类：堆叠信息
-    private static class StackInfo {
-        int groups;
-        int remaining;
 
-        StackInfo(int groups, int remaining) {
-            this.groups = groups;
-            this.remaining = remaining;
-        }
+        return result;
+    }
 
-        @Override
-        public String toString() {
-            return groups + "组+" + remaining + "个";
-        }
+    // 物品类型转换
+    public String convertItemType(String typeCode) {
+        return ItemType.displayNameOf(typeCode);
     }
 
-    // 内部数据类：怪物信息
-    private static class MonsterInfo {
-        String monsterName;
-        Monster monster;
+    // 货币名称转换为繁体中文
+    public String convertCurrencyName(String currencyCode) {
+        return Currency.displayNameOf(currencyCode);
+    }
 
-        MonsterInfo(String monsterName, Monster monster) {
-            this.monsterName = monsterName;
-            this.monster = monster;
-        }
+    // 等级转换
+    public String convertLevel(String levelCode) {
+        return ItemLevel.displayNameOf(levelCode);
+    }
 
-        String getMonsterName() { return monsterName; }
-        Monster getMonster() { return monster; }
+    // 每组堆叠数量
+    private static int stackSize(boolean is16g) {
+        return is16g ? 16 : 64;
     }
 }
\ No newline at end of file
@@ -1,18 +1,29 @@
 package MaterialCount;
 
+import java.util.Collections;
+import java.util.Map;
+
 public class MaterialSource {
     private String monsterName;
     private String position;
     private int quantity;
+    // 该怪物每次精炼的货币成本，没有精炼成本时为空
+    private Map<String, Integer> refineCurrency;
 
     public MaterialSource(String monsterName, String position, int quantity) {
+        this(monsterName, position, quantity, Collections.emptyMap());
+    }
+
+    public MaterialSource(String monsterName, String position, int quantity, Map<String, Integer> refineCurrency) {
         this.monsterName = monsterName;
         this.position = position;
         this.quantity = quantity;
+        this.refineCurrency = refineCurrency;
     }
 
     // Getters
     public String getMonsterName() { return monsterName; }
     public String getPosition() { return position; }
     public int getQuantity() { return quantity; }
+    public Map<String, Integer> getRefineCurrency() { return refineCurrency; }
 }
\ No newline at end of file
@@ -14,13 +14,32 @@ public class Monster {
     @SerializedName("16g")
     private boolean is16g;
 
+    // 解析后的坐标，格式无法识别时为null
+    private transient Position coordinates;
+    private transient boolean frozen;
+
     // Getters and setters
     public Map<String, String> getDrops() { return drops; }
-    public void setDrops(Map<String, String> drops) { this.drops = drops; }
+    public void setDrops(Map<String, String> drops) { Realm.requireMutable(frozen); this.drops = drops; }
     public String getPosition() { return position; }
-    public void setPosition(String position) { this.position = position; }
+    public void setPosition(String position) {
+        Realm.requireMutable(frozen);
+        this.position = position;
+        this.coordinates = Position.parse(position);
+    }
+    public Position getCoordinates() { return coordinates; }
     public CurrencyCost getCurrencyCost() { return currencyCost; }
-    public void setCurrencyCost(CurrencyCost currencyCost) { this.currencyCost = currencyCost; }
+    public void setCurrencyCost(CurrencyCost currencyCost) { Realm.requireMutable(frozen); this.currencyCost = currencyCost; }
     public boolean is16g() { return is16g; }
-    public void set16g(boolean is16g) { this.is16g = is16g; }
+    public void set16g(boolean is16g) { Realm.requireMutable(frozen); this.is16g = is16g; }
+
+    // 由 Layer.freeze 调用
+    void freeze() {
+        if (frozen) return;
+        drops = CompactMap.copyOf(drops);
+        // 通过反射（Gson）填充的对象没有经过 setPosition
+        if (coordinates == null) coordinates = Position.parse(position);
+        if (currencyCost != null) currencyCost.freeze();
+        frozen = true;
+    }
 }
\ No newline at end of file
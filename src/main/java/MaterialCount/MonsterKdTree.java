@@ -0,0 +1,185 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+// 层级内怪物坐标的k-d树：按 x、y、z 轴交替取中位数划分，节点按隐式布局存放在数组中
+// 构建 O(n log² n)，最近邻查询平均 O(log n)；没有有效坐标的怪物不进入树
+public final class MonsterKdTree {
+    private static final MonsterKdTree EMPTY = new MonsterKdTree(new ArrayList<>());
+
+    // 区间 [lo, hi) 的根节点位于 (lo + hi) / 2，划分轴为深度 % 3
+    private final String[] names;
+    private final Monster[] monsters;
+    private final int[] coords;
+    private final Map<String, Integer> indexByName = new HashMap<>();
+
+    private MonsterKdTree(List<Map.Entry<String, Monster>> entries) {
+        int n = entries.size();
+        List<Map.Entry<String, Monster>> nodes = new ArrayList<>(entries);
+        build(nodes, 0, n, 0);
+        names = new String[n];
+        monsters = new Monster[n];
+        coords = new int[n * 3];
+        for (int i = 0; i < n; i++) {
+            names[i] = nodes.get(i).getKey();
+            monsters[i] = nodes.get(i).getValue();
+            Position position = monsters[i].getCoordinates();
+            coords[i * 3] = position.x();
+            coords[i * 3 + 1] = position.y();
+            coords[i * 3 + 2] = position.z();
+            indexByName.putIfAbsent(names[i], i);
+        }
+    }
+
+    // 按类别顺序收集层级中所有有坐标的怪物
+    public static MonsterKdTree build(Layer layer) {
+        List<Map.Entry<String, Monster>> entries = new ArrayList<>();
+        addMonsters(entries, layer.getSmallMonsters());
+        addMonsters(entries, layer.getEliteSmallMonsters());
+        addMonsters(entries, layer.getEliteMonsters());
+        addMonsters(entries, layer.getBoss());
+        return entries.isEmpty() ? EMPTY : new MonsterKdTree(entries);
+    }
+
+    private static void addMonsters(List<Map.Entry<String, Monster>> entries, Map<String, Monster> monsters) {
+        if (monsters == null) return;
+        monsters.forEach((name, monster) -> {
+            if (monster != null && monster.getCoordinates() != null) entries.add(Map.entry(name, monster));
+        });
+    }
+
+    private static void build(List<Map.Entry<String, Monster>> nodes, int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        Comparator<Map.Entry<String, Monster>> byAxis = Comparator.comparingInt(entry -> axisValue(entry.getValue().getCoordinates(), depth % 3));
+        nodes.subList(lo, hi).sort(byAxis);
+        int mid = (lo + hi) >>> 1;
+        build(nodes, lo, mid, depth + 1);
+        build(nodes, mid + 1, hi, depth + 1);
+    }
+
+    private static int axisValue(Position position, int axis) {
+        return switch (axis) {
+            case 0 -> position.x();
+            case 1 -> position.y();
+            default -> position.z();
+        };
+    }
+
+    // 距离 from 最近、且满足 accept 的怪物下标，没有时返回-1
+    public int nearest(Position from, IntPredicate accept) {
+        Search search = new Search(from, accept, null);
+        search.visit(0, names.length, 0);
+        return search.best;
+    }
+
+    // 距离 from 最近的怪物下标，没有时返回-1
+    public int nearest(Position from) {
+        return nearest(from, i -> true);
+    }
+
+    // 逐个取出最近点：每次返回离给定位置最近、尚未取出的节点并将其移除（路线规划的最近邻构造）
+    // 记录每棵子树中剩余的节点数，已取空的子树整棵跳过，取出后期查询不会退化为全表扫描
+    public final class NearestWalk {
+        // 以子树根（区间中点）为下标的子树剩余节点数
+        private final int[] remaining = new int[names.length];
+        private final boolean[] active;
+
+        private NearestWalk(boolean[] active) {
+            this.active = active.clone();
+            count(0, names.length);
+        }
+
+        private int count(int lo, int hi) {
+            if (lo >= hi) return 0;
+            int mid = (lo + hi) >>> 1;
+            int total = (active[mid] ? 1 : 0) + count(lo, mid) + count(mid + 1, hi);
+            remaining[mid] = total;
+            return total;
+        }
+
+        // 取出离 from 最近的剩余节点，没有剩余时返回-1
+        public int next(Position from) {
+            Search search = new Search(from, node -> active[node], remaining);
+            search.visit(0, names.length, 0);
+            if (search.best >= 0) remove(search.best);
+            return search.best;
+        }
+
+        private void remove(int node) {
+            active[node] = false;
+            int lo = 0;
+            int hi = names.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                remaining[mid]--;
+                if (node == mid) return;
+                if (node < mid) hi = mid;
+                else lo = mid + 1;
+            }
+        }
+    }
+
+    // active[i] 为 true 的节点参与遍历
+    public NearestWalk walk(boolean[] active) {
+        return new NearestWalk(active);
+    }
+
+    private final class Search {
+        private final int[] target;
+        private final IntPredicate accept;
+        // 子树剩余节点数，为null时不做该剪枝
+        private final int[] remaining;
+        private int best = -1;
+        private long bestDistance = Long.MAX_VALUE;
+
+        Search(Position from, IntPredicate accept, int[] remaining) {
+            this.target = new int[] {from.x(), from.y(), from.z()};
+            this.accept = accept;
+            this.remaining = remaining;
+        }
+
+        void visit(int lo, int hi, int depth) {
+            if (lo >= hi) return;
+            int mid = (lo + hi) >>> 1;
+            if (remaining != null && remaining[mid] == 0) return;
+            long distance = distanceSquared(mid, target);
+            if (distance < bestDistance && accept.test(mid)) {
+                best = mid;
+                bestDistance = distance;
+            }
+            int axis = depth % 3;
+            long delta = (long) target[axis] - coords[mid * 3 + axis];
+            // 先搜索目标所在一侧，另一侧只有可能更近时才搜索
+            if (delta < 0) {
+                visit(lo, mid, depth + 1);
+                if (delta * delta < bestDistance) visit(mid + 1, hi, depth + 1);
+            } else {
+                visit(mid + 1, hi, depth + 1);
+                if (delta * delta < bestDistance) visit(lo, mid, depth + 1);
+            }
+        }
+    }
+
+    private long distanceSquared(int i, int[] target) {
+        long dx = coords[i * 3] - target[0];
+        long dy = coords[i * 3 + 1] - target[1];
+        long dz = coords[i * 3 + 2] - target[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    // 按怪物名称查找下标，不在树中时返回-1
+    public int indexOf(String monsterName) {
+        Integer index = indexByName.get(monsterName);
+        return index == null ? -1 : index;
+    }
+
+    public int size() { return names.length; }
+    public String getName(int index) { return names[index]; }
+    public Monster getMonster(int index) { return monsters[index]; }
+    public Position getPosition(int index) { return monsters[index].getCoordinates(); }
+}
\ No newline at end of file
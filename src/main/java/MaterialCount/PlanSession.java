@@ -0,0 +1,235 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 计划会话：玩家边刷边记录背包变化，剩余需求随之增量更新
+// 创建时对每个计划行计算一次需求；之后每条增量（掉落、完成精炼、货币）只更新受影响的那一行和相关货币，
+// 不再重新调用 calculate，并通知监听器
+//
+// 剩余掉落 = 需求 − 已覆盖；已覆盖 = 已精炼次数 × 每次精炼材料 + 背包中未精炼的材料
+// 已有的精炼成品用 addRefinedStock 记录：与完成精炼一样减少需求，但没有花费货币，不扣除持有量
+public class PlanSession {
+    private final Map<Key, Line> lines = new LinkedHashMap<>();
+    // (世界, 层级, 怪物) -> 该怪物掉落的计划行；不同层级可能有同名怪物
+    private final Map<MonsterKey, List<Line>> linesByMonster = new HashMap<>();
+    // 完成剩余精炼所需的货币（未扣除持有量）
+    private final Map<String, Long> currencyForRefinements = new HashMap<>();
+    private final Map<String, Long> currencyHeld = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // 相同(世界, 层级, 物品)的行合并数量后计算；任一行无效时抛出 IllegalArgumentException
+    // 所有行和成本表都从同一版本的注册表读取，期间重新加载世界不会混入新旧数据
+    public PlanSession(MaterialCalculator calculator, List<BatchRequest> requests) {
+        Map<Key, Integer> quantities = new LinkedHashMap<>();
+        for (BatchRequest request : requests) {
+            quantities.merge(new Key(request.getRealmName(), request.getLayerId(), request.getItemKey()),
+                    request.getQuantity(), Integer::sum);
+        }
+        RealmRegistry registry = calculator.getRegistry();
+        CostTable table = registry.getCostTable();
+        quantities.forEach((key, quantity) -> {
+            CalculationResult result = calculator.calculate(registry, key.realmName(), key.layerId(), key.itemKey(), quantity);
+            int row = table.rowOf(key.realmName(), key.layerId(), key.itemKey());
+            Line line = new Line(key, result, row < 0 ? 0 : table.getRefineMaterial(row));
+            lines.put(key, line);
+            for (MaterialSource source : result.getSources()) {
+                linesByMonster.computeIfAbsent(new MonsterKey(key.realmName(), key.layerId(), source.getMonsterName()),
+                        k -> new ArrayList<>()).add(line);
+            }
+            line.perRefinementCurrency.forEach((type, amount) ->
+                    currencyForRefinements.merge(type, (long) amount * line.refinementsRequired, Long::sum));
+        });
+    }
+
+    // 计划行的标识
+    public record Key(String realmName, String layerId, String itemKey) {}
+
+    private record MonsterKey(String realmName, String layerId, String monsterName) {}
+
+    // 监听器在修改所在的线程中、持有会话锁时被调用；界面需要自行切换到界面线程
+    public interface Listener {
+        // 某一行的进度变化
+        void materialChanged(MaterialProgress progress);
+
+        // 某种货币的剩余需求变化
+        default void currencyChanged(String currencyCode, long remaining) {}
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // 记录获得（负数为更正）的未精炼材料
+    public synchronized MaterialProgress addDrops(Key key, int count) {
+        Line line = line(key);
+        line.collected = Math.max(0, line.collected + count);
+        MaterialProgress progress = line.progress();
+        listeners.forEach(listener -> listener.materialChanged(progress));
+        return progress;
+    }
+
+    // 记录某个怪物的掉落，如"+64 夢1c小怪1"；怪物掉落多个计划物品时需指定 itemKey，否则可为null
+    public synchronized MaterialProgress addMonsterDrops(String realmName, String layerId, String monsterName,
+                                                         String itemKey, int count) {
+        List<Line> candidates = linesByMonster.getOrDefault(new MonsterKey(realmName, layerId, monsterName),
+                Collections.emptyList());
+        Line match = null;
+        for (Line line : candidates) {
+            if (itemKey != null && !line.key.itemKey().equals(itemKey)) continue;
+            if (match != null) throw new IllegalArgumentException(monsterName + " 掉落多个计划中的物品，请指定物品");
+            match = line;
+        }
+        if (match == null) throw new IllegalArgumentException("计划中没有 " + monsterName + " 掉落的物品");
+        return addDrops(match.key, count);
+    }
+
+    // 记录完成的精炼次数；持有的货币按每次精炼成本扣除
+    public synchronized MaterialProgress addRefinements(Key key, int count) {
+        return recordRefinements(key, count, true);
+    }
+
+    // 记录已有的精炼成品数：覆盖的材料和精炼不必再做，持有的货币不变
+    public synchronized MaterialProgress addRefinedStock(Key key, int count) {
+        return recordRefinements(key, count, false);
+    }
+
+    private MaterialProgress recordRefinements(Key key, int count, boolean spendCurrency) {
+        if (count <= 0) throw new IllegalArgumentException("精炼次数必须为正数: " + count);
+        Line line = line(key);
+        int remainingBefore = line.remainingRefinements();
+        line.refinementsDone += count;
+        int remainingDelta = line.remainingRefinements() - remainingBefore;
+        MaterialProgress progress = line.progress();
+        listeners.forEach(listener -> listener.materialChanged(progress));
+
+        line.perRefinementCurrency.forEach((type, amount) -> {
+            long before = remainingCurrency(type);
+            currencyForRefinements.merge(type, (long) amount * remainingDelta, Long::sum);
+            if (spendCurrency) currencyHeld.computeIfPresent(type, (k, held) -> Math.max(0, held - (long) amount * count));
+            notifyCurrency(type, before);
+        });
+        return progress;
+    }
+
+    // 记录获得（负数为花费）的货币
+    public synchronized void addCurrency(String currencyCode, long amount) {
+        long before = remainingCurrency(currencyCode);
+        currencyHeld.merge(currencyCode, amount, (held, delta) -> Math.max(0, held + delta));
+        notifyCurrency(currencyCode, before);
+    }
+
+    private void notifyCurrency(String currencyCode, long before) {
+        long after = remainingCurrency(currencyCode);
+        if (after != before) listeners.forEach(listener -> listener.currencyChanged(currencyCode, after));
+    }
+
+    private long remainingCurrency(String currencyCode) {
+        return Math.max(0, currencyForRefinements.getOrDefault(currencyCode, 0L) - currencyHeld.getOrDefault(currencyCode, 0L));
+    }
+
+    private Line line(Key key) {
+        Line line = lines.get(key);
+        if (line == null) throw new IllegalArgumentException("计划中没有该物品: " + key.itemKey());
+        return line;
+    }
+
+    public synchronized MaterialProgress getProgress(Key key) {
+        return line(key).progress();
+    }
+
+    // 所有计划行的进度，与创建时的顺序一致
+    public synchronized List<MaterialProgress> getProgress() {
+        List<MaterialProgress> progress = new ArrayList<>(lines.size());
+        for (Line line : lines.values()) progress.add(line.progress());
+        return progress;
+    }
+
+    // 还需准备的货币（货币编码 -> 数量），只列出仍有缺口的货币
+    public synchronized Map<String, Long> getRemainingCurrency() {
+        Map<String, Long> remaining = new LinkedHashMap<>();
+        for (String type : currencyForRefinements.keySet()) {
+            long amount = remainingCurrency(type);
+            if (amount > 0) remaining.put(type, amount);
+        }
+        return remaining;
+    }
+
+    public synchronized Map<String, Long> getCurrencyHeld() {
+        return new LinkedHashMap<>(currencyHeld);
+    }
+
+    // 所有行的材料和精炼都已完成，且货币足够
+    public synchronized boolean isComplete() {
+        for (Line line : lines.values()) {
+            if (!line.progress().isComplete()) return false;
+        }
+        return getRemainingCurrency().isEmpty();
+    }
+
+    // 一个计划行的可变状态，只在会话锁内访问
+    private static class Line {
+        private final Key key;
+        private final String itemName;
+        private final int stackSize;
+        private final int required;
+        private final int refineMaterial;
+        private final int refinementsRequired;
+        private final Map<String, Integer> perRefinementCurrency;
+        private int collected;
+        private int refinementsDone;
+
+        Line(Key key, CalculationResult result, int refineMaterial) {
+            this.key = key;
+            this.itemName = result.getItemName();
+            this.stackSize = result.getStackSize();
+            this.required = result.getUnrefinedCount();
+            this.refinementsRequired = result.getRefineCount();
+            this.refineMaterial = refinementsRequired > 0 ? refineMaterial : 0;
+            this.perRefinementCurrency = result.getPerRefinementCurrency();
+        }
+
+        int remainingRefinements() {
+            return Math.max(0, refinementsRequired - refinementsDone);
+        }
+
+        MaterialProgress progress() {
+            int refined = refinementsDone * refineMaterial;
+            int inBag = Math.max(0, collected - refined);
+            return new MaterialProgress(key, itemName, stackSize, required, refined + inBag, inBag,
+                    refinementsRequired, refinementsDone);
+        }
+    }
+
+    // 某一行在某一时刻的进度（不可变）
+    // covered: 已覆盖的材料数（精炼消耗 + 背包中）；inBag: 背包中未精炼的材料数
+    public record MaterialProgress(Key key, String itemName, int stackSize, int required, int covered, int inBag,
+                                   int refinementsRequired, int refinementsDone) {
+
+        public int remainingDrops() {
+            return Math.max(0, required - covered);
+        }
+
+        public int remainingRefinements() {
+            return Math.max(0, refinementsRequired - refinementsDone);
+        }
+
+        // 剩余掉落按堆叠拆分，如"3组+12个"
+        public String formatRemainingStacks() {
+            return CalculationResult.formatStacks(remainingDrops(), stackSize);
+        }
+
+        public boolean isComplete() {
+            return remainingDrops() == 0 && remainingRefinements() == 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package MaterialCount;
+
+// 怪物或玩家的坐标（JSON中以"x, y, z"字符串表示），加载时解析一次
+public record Position(int x, int y, int z) {
+
+    // 解析"x, y, z"，格式不符时返回null（坐标只用于显示和路线规划，不影响计算）
+    public static Position parse(String text) {
+        if (text == null) return null;
+        String[] parts = text.split(",");
+        if (parts.length != 3) return null;
+        try {
+            return new Position(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long distanceSquared(Position other) {
+        long dx = x - other.x;
+        long dy = y - other.y;
+        long dz = z - other.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public double distance(Position other) {
+        return Math.sqrt(distanceSquared(other));
+    }
+
+    @Override
+    public String toString() {
+        return x + ", " + y + ", " + z;
+    }
+}
\ No newline at end of file
@@ -10,12 +10,18 @@ public class Realm {
     private String realmName;
     private Map<String, Layer> layers = new HashMap<>();
 
+    // 物品来源索引（不参与JSON序列化），在 freeze() 中按最终数据构建
+    private transient Map<String, LayerIndex> layerIndexes;
+    // 冻结后整个世界只读，可被多个线程无锁共享
+    private transient boolean frozen;
+
     // Default constructor for Gson
     public Realm() {}
 
     // Getters and setters with validation
     public String getRealmName() { return realmName; }
     public void setRealmName(String realmName) {
+        requireMutable(frozen);
         if (realmName == null || realmName.trim().isEmpty()) {
             throw new IllegalArgumentException("Realm name cannot be empty");
         }
@@ -23,6 +29,40 @@ public class Realm {
     }
     public Map<String, Layer> getLayers() { return layers; }
     public void setLayers(Map<String, Layer> layers) {
+        requireMutable(frozen);
         this.layers = layers != null ? layers : new HashMap<>();
     }
+
+    // 为所有层级构建物品来源索引
+    private void buildIndexes() {
+        Map<String, LayerIndex> indexes = new HashMap<>();
+        layers.forEach((layerId, layer) -> indexes.put(layerId, LayerIndex.build(layer)));
+        this.layerIndexes = indexes;
+    }
+
+    // 深度冻结：所有映射换成只读的紧凑映射（保持遍历顺序），各对象的setter不再可用，并按最终数据构建索引
+    // 发布到 MaterialCalculator 时调用；重复调用没有影响
+    public synchronized void freeze() {
+        if (frozen) return;
+        Map<String, Layer> frozenLayers = CompactMap.copyOf(layers);
+        for (Layer layer : frozenLayers.values()) {
+            if (layer != null) layer.freeze();
+        }
+        this.layers = frozenLayers;
+        buildIndexes();
+        frozen = true;
+    }
+
+    public boolean isFrozen() { return frozen; }
+
+    // 冻结后的修改一律拒绝
+    static void requireMutable(boolean frozen) {
+        if (frozen) throw new IllegalStateException("世界数据已冻结，不能修改");
+    }
+
+    // 获取指定层级的索引，层级不存在时返回null；索引只在冻结后存在
+    public LayerIndex getLayerIndex(String layerId) {
+        if (!frozen) throw new IllegalStateException("世界数据尚未冻结，没有索引");
+        return layerIndexes.get(layerId);
+    }
 }
\ No newline at end of file
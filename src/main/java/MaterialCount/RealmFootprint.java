@@ -0,0 +1,134 @@
+package MaterialCount;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 估算一个世界（数据模型 + 层级索引）占用的堆内存
+// 按64位JVM开启压缩指针的布局估算：对象头12字节、引用4字节、按8字节对齐
+// 共享的对象（如去重后的字符串）只计算一次
+public class RealmFootprint {
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+
+    private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long bytes;
+
+    public static long estimate(Realm realm) {
+        RealmFootprint footprint = new RealmFootprint();
+        footprint.addRealm(realm);
+        return footprint.bytes;
+    }
+
+    private void addRealm(Realm realm) {
+        bytes += align(HEADER + 3 * REFERENCE);
+        addString(realm.getRealmName());
+        addMap(realm.getLayers());
+        for (Map.Entry<String, Layer> entry : realm.getLayers().entrySet()) {
+            addString(entry.getKey());
+            addLayer(entry.getValue());
+            addIndex(realm.getLayerIndex(entry.getKey()));
+        }
+    }
+
+    private void addLayer(Layer layer) {
+        bytes += align(HEADER + 4 * REFERENCE);
+        addMonsters(layer.getSmallMonsters());
+        addMonsters(layer.getEliteSmallMonsters());
+        addMonsters(layer.getEliteMonsters());
+        addMonsters(layer.getBoss());
+    }
+
+    private void addMonsters(Map<String, Monster> monsters) {
+        if (monsters == null) return;
+        addMap(monsters);
+        monsters.forEach((name, monster) -> {
+            addString(name);
+            bytes += align(HEADER + 4 * REFERENCE + 2);
+            addString(monster.getPosition());
+            if (monster.getCoordinates() != null) bytes += align(HEADER + 12);
+            if (monster.getDrops() != null) {
+                addMap(monster.getDrops());
+                monster.getDrops().forEach((item, quantity) -> {
+                    addString(item);
+                    addString(quantity);
+                });
+            }
+            CurrencyCost cost = monster.getCurrencyCost();
+            if (cost != null) {
+                bytes += align(HEADER + 4 + REFERENCE);
+                if (cost.getRefineCostCurrency() != null) {
+                    addMap(cost.getRefineCostCurrency());
+                    cost.getRefineCostCurrency().forEach((type, amount) -> {
+                        addString(type);
+                        addInteger(amount);
+                    });
+                }
+            }
+        });
+    }
+
+    private void addIndex(LayerIndex index) {
+        if (index == null) return;
+        // LinkedHashMap 本体及每个条目节点
+        Set<String> itemKeys = index.getItemKeys();
+        bytes += align(HEADER + 6 * REFERENCE + 12) + align(ARRAY_HEADER + REFERENCE * tableCapacity(itemKeys.size()));
+        for (String itemKey : itemKeys) {
+            addString(itemKey);
+            bytes += align(HEADER + 6 * REFERENCE + 4);
+            List<DropSource> sources = index.getSources(itemKey);
+            // 不可修改的列表包装 + ArrayList + 数组
+            bytes += align(HEADER + 2 * REFERENCE) + align(HEADER + 4 + REFERENCE) + align(ARRAY_HEADER + REFERENCE * sources.size());
+            for (DropSource source : sources) {
+                bytes += align(HEADER + 4 * REFERENCE);
+                addString(source.getCategory());
+                if (seen.add(source.getDrop())) bytes += align(HEADER + 4 + 1);
+            }
+        }
+        // k-d树：名称、怪物、坐标三个数组及名称 -> 下标的 HashMap
+        MonsterKdTree tree = index.getSpatialIndex();
+        if (tree != null && seen.add(tree)) {
+            int size = tree.size();
+            bytes += align(HEADER + 4 * REFERENCE) + 2 * align(ARRAY_HEADER + REFERENCE * size) + align(ARRAY_HEADER + 12L * size);
+            bytes += align(HEADER + 3 * REFERENCE + 12) + align(ARRAY_HEADER + REFERENCE * tableCapacity(size))
+                    + (long) size * (align(HEADER + 3 * REFERENCE + 4) + align(HEADER + 4));
+        }
+    }
+
+    private void addMap(Map<String, ?> map) {
+        if (!seen.add(map)) return;
+        int size = map.size();
+        if (map instanceof CompactMap) {
+            bytes += align(HEADER + 3 * REFERENCE) + 2 * align(ARRAY_HEADER + REFERENCE * size);
+            if (size > 8) bytes += align(ARRAY_HEADER + 4 * tableCapacity(size));
+        } else {
+            // 按 LinkedHashMap 估算：本体、桶数组、每个条目一个节点
+            bytes += align(HEADER + 6 * REFERENCE + 12) + align(ARRAY_HEADER + REFERENCE * tableCapacity(size))
+                    + (long) size * align(HEADER + 6 * REFERENCE + 4);
+        }
+    }
+
+    private void addString(String value) {
+        if (value == null || !seen.add(value)) return;
+        // String 对象 + byte[]（拉丁字符每字符1字节，否则2字节）
+        int perChar = value.chars().allMatch(c -> c < 256) ? 1 : 2;
+        bytes += align(HEADER + REFERENCE + 4 + 1 + 1) + align(ARRAY_HEADER + (long) perChar * value.length());
+    }
+
+    private void addInteger(Integer value) {
+        // -128..127 使用JVM缓存，不额外占用
+        if (value == null || (value >= -128 && value <= 127) || !seen.add(value)) return;
+        bytes += align(HEADER + 4);
+    }
+
+    private static int tableCapacity(int size) {
+        return size == 0 ? 0 : Integer.highestOneBit(Math.max(size * 2 - 1, 1)) << 1;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
\ No newline at end of file
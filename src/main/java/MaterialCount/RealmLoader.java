@@ -0,0 +1,167 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 世界数据加载器：启动时并行读取各世界名称，首次选择某个世界时才加载其层级数据
+// 每个世界单独加载，失败只影响该世界，并记录在 getFailures() 中
+// 加载完成的世界通过 MaterialCalculator.publishRealm 发布为新的不可变快照
+public class RealmLoader {
+    // 内置的世界数据文件
+    public static final List<String> DEFAULT_REALM_FILES = List.of("/dream.json", "/abyss.json", "/fairy.json", "/main_world.json", "/P&H.json");
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MaterialCalculator calculator;
+    private final List<String> realmFiles;
+    private final Map<String, String> filesByRealm = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Realm>> loads = new ConcurrentHashMap<>();
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+    private final Map<String, Long> memoryUsage = new ConcurrentHashMap<>();
+
+    public RealmLoader(MaterialCalculator calculator, List<String> realmFiles) {
+        this.calculator = calculator;
+        this.realmFiles = List.copyOf(realmFiles);
+    }
+
+    // 并行读取所有文件的世界名称，按文件顺序返回读取成功的名称
+    public CompletableFuture<List<String>> scanRealmNames() {
+        List<CompletableFuture<String>> names = new ArrayList<>();
+        for (String file : realmFiles) {
+            names.add(CompletableFuture.supplyAsync(() -> JsonLoader.peekRealmName(file), executor)
+                    .handle((name, error) -> {
+                        if (error != null) {
+                            failures.put(file, rootMessage(error));
+                            return null;
+                        }
+                        filesByRealm.put(name, file);
+                        return name;
+                    }));
+        }
+        return CompletableFuture.allOf(names.toArray(CompletableFuture<?>[]::new))
+                .thenApply(ignored -> {
+                    List<String> result = new ArrayList<>();
+                    names.forEach(future -> {
+                        String name = future.join();
+                        if (name != null) result.add(name);
+                    });
+                    return result;
+                });
+    }
+
+    // 加载指定世界（只加载一次）；失败后再次调用会重新尝试
+    public CompletableFuture<Realm> load(String realmName) {
+        Realm loaded = calculator.getRealm(realmName);
+        if (loaded != null) return CompletableFuture.completedFuture(loaded);
+        String file = filesByRealm.get(realmName);
+        if (file == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("无效世界: " + realmName));
+        }
+        CompletableFuture<Realm> created = new CompletableFuture<>();
+        CompletableFuture<Realm> existing = loads.putIfAbsent(realmName, created);
+        if (existing != null) return existing;
+
+        executor.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                Realm realm = RealmSnapshot.load(file);
+                EngineMetrics.recordRealmLoad(realm.getRealmName(), System.nanoTime() - start);
+                failures.remove(file);
+                calculator.publishRealm(null, realm);
+                recordMemoryUsage(null, realm);
+                created.complete(realm);
+            } catch (Throwable error) {
+                EngineMetrics.recordError("loadRealm", error);
+                failures.put(file, rootMessage(error));
+                loads.remove(realmName, created);
+                created.completeExceptionally(error);
+            }
+        });
+        return created;
+    }
+
+    // 加载所有世界（无界面场景使用）；个别世界失败不影响其他世界，失败信息见 getFailures()
+    public CompletableFuture<Void> loadAll() {
+        return scanRealmNames().thenCompose(names -> CompletableFuture.allOf(names.stream()
+                .map(name -> load(name).exceptionally(error -> null))
+                .toArray(CompletableFuture<?>[]::new)));
+    }
+
+    // 数据文件变化后重新加载：已加载的世界重新解析并原子替换，未加载的只更新名称
+    // 加载失败时保留旧数据，失败信息记录在 getFailures() 中；返回重新加载后的世界名称
+    public String reload(String file) {
+        String oldName = null;
+        for (Map.Entry<String, String> entry : filesByRealm.entrySet()) {
+            if (entry.getValue().equals(file)) oldName = entry.getKey();
+        }
+        try {
+            String newName;
+            if (oldName != null && calculator.getRealm(oldName) != null) {
+                long start = System.nanoTime();
+                Realm realm = RealmSnapshot.load(file);
+                EngineMetrics.recordRealmLoad(realm.getRealmName(), System.nanoTime() - start);
+                calculator.publishRealm(oldName, realm);
+                recordMemoryUsage(oldName, realm);
+                newName = realm.getRealmName();
+            } else {
+                newName = JsonLoader.peekRealmName(file);
+            }
+            updateName(oldName, newName, file);
+            failures.remove(file);
+            return newName;
+        } catch (Exception e) {
+            EngineMetrics.recordError("reloadRealm", e);
+            failures.put(file, rootMessage(e));
+            throw e;
+        }
+    }
+
+    private void updateName(String oldName, String newName, String file) {
+        if (oldName != null && !oldName.equals(newName)) {
+            filesByRealm.remove(oldName);
+            loads.remove(oldName);
+        }
+        filesByRealm.put(newName, file);
+    }
+
+    // 发布后调用：按冻结后的紧凑映射和索引估算
+    private void recordMemoryUsage(String oldName, Realm realm) {
+        long bytes = RealmFootprint.estimate(realm);
+        if (oldName != null) memoryUsage.remove(oldName);
+        memoryUsage.put(realm.getRealmName(), bytes);
+        System.out.printf("世界 %s 已加载，约占用 %.1f KB%n", realm.getRealmName(), bytes / 1024.0);
+    }
+
+    // 各已加载世界估算占用的堆内存（字节），见 RealmFootprint
+    public Map<String, Long> getMemoryUsage() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(memoryUsage));
+    }
+
+    // 已知的世界名称（扫描或重新加载后读到的名称，不论是否已加载）
+    public Set<String> getRealmNames() {
+        return Set.copyOf(filesByRealm.keySet());
+    }
+
+    // 数据文件列表
+    public List<String> getRealmFiles() {
+        return realmFiles;
+    }
+
+    // 加载失败的文件及原因
+    public Map<String, String> getFailures() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) cause = cause.getCause();
+        return cause.getMessage();
+    }
+}
@@ -0,0 +1,156 @@
+package MaterialCount;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+
+// 流式解析世界数据：用 JsonReader 逐个读取记号，直接写入紧凑的只读模型
+// 不经过Gson反射和中间的 HashMap，名称、物品键、坐标、掉落数量等字符串经本次解析的符号表共享，同一文件中只保留一份
+public class RealmParser {
+    private final JsonReader reader;
+    // 只在解析期间使用，解析结束后随解析器丢弃
+    private final SymbolTable symbols = new SymbolTable();
+
+    private RealmParser(JsonReader reader) {
+        this.reader = reader;
+    }
+
+    public static Realm parse(Reader input) throws IOException {
+        try (JsonReader reader = new JsonReader(input)) {
+            return new RealmParser(reader).readRealm();
+        }
+    }
+
+    private Realm readRealm() throws IOException {
+        Realm realm = new Realm();
+        String realmName = null;
+        CompactMap<Layer> layers = CompactMap.empty();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "realm_name" -> realmName = nextString();
+                case "layers" -> layers = readLayers();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (realmName == null) throw new IllegalStateException("缺少 realm_name 字段");
+        realm.setRealmName(realmName);
+        realm.setLayers(layers);
+        return realm;
+    }
+
+    private CompactMap<Layer> readLayers() throws IOException {
+        if (skipNull()) return CompactMap.empty();
+        CompactMap.Builder<Layer> layers = new CompactMap.Builder<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String layerId = intern(reader.nextName());
+            layers.put(layerId, readLayer());
+        }
+        reader.endObject();
+        return layers.build();
+    }
+
+    private Layer readLayer() throws IOException {
+        Layer layer = new Layer();
+        if (skipNull()) return layer;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "small_monsters" -> layer.setSmallMonsters(readMonsters());
+                case "elite_small_monsters" -> layer.setEliteSmallMonsters(readMonsters());
+                case "elite_monsters" -> layer.setEliteMonsters(readMonsters());
+                case "boss" -> layer.setBoss(readMonsters());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return layer;
+    }
+
+    private CompactMap<Monster> readMonsters() throws IOException {
+        if (skipNull()) return null;
+        CompactMap.Builder<Monster> monsters = new CompactMap.Builder<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = intern(reader.nextName());
+            monsters.put(name, readMonster());
+        }
+        reader.endObject();
+        return monsters.build();
+    }
+
+    private Monster readMonster() throws IOException {
+        Monster monster = new Monster();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "drops" -> monster.setDrops(readDrops());
+                case "position" -> monster.setPosition(nextString());
+                case "currency_cost" -> monster.setCurrencyCost(readCurrencyCost());
+                case "16g" -> monster.set16g(!skipNull() && reader.nextBoolean());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return monster;
+    }
+
+    private CompactMap<String> readDrops() throws IOException {
+        if (skipNull()) return null;
+        CompactMap.Builder<String> drops = new CompactMap.Builder<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String itemKey = intern(reader.nextName());
+            drops.put(itemKey, nextString());
+        }
+        reader.endObject();
+        return drops.build();
+    }
+
+    private CurrencyCost readCurrencyCost() throws IOException {
+        if (skipNull()) return null;
+        CurrencyCost cost = new CurrencyCost();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "refine_cost_material" -> cost.setRefineCostMaterial(skipNull() ? 0 : reader.nextInt());
+                case "refine_cost_currency" -> cost.setRefineCostCurrency(readCurrency());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return cost;
+    }
+
+    private CompactMap<Integer> readCurrency() throws IOException {
+        if (skipNull()) return null;
+        CompactMap.Builder<Integer> currency = new CompactMap.Builder<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String type = intern(reader.nextName());
+            currency.put(type, reader.nextInt());
+        }
+        reader.endObject();
+        return currency.build();
+    }
+
+    // 读取字符串值（数字也按字符串读取，与Gson绑定到String字段的行为一致）
+    private String nextString() throws IOException {
+        return skipNull() ? null : intern(reader.nextString());
+    }
+
+    private boolean skipNull() throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    private String intern(String value) {
+        return symbols.canonical(value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// 不可变的世界注册表：某一数据版本下的全部世界（已深度冻结）及由其派生的全局物品索引和单位成本表
+// 计算器只持有当前版本的一个引用，更新时整体替换；读取方取一次引用即可无锁、无防御性拷贝地读到一致的数据
+public final class RealmRegistry {
+    private final long version;
+    private final Map<String, Realm> realms;
+    private final List<String> realmNames;
+    private final GlobalItemIndex itemIndex;
+    private final CostTable costTable;
+
+    // realms 中的世界必须已冻结，由 MaterialCalculator 构建
+    RealmRegistry(long version, Map<String, Realm> realms, CostTable costTable) {
+        this.version = version;
+        this.realms = Map.copyOf(realms);
+        List<String> names = new ArrayList<>(this.realms.keySet());
+        Collections.sort(names);
+        this.realmNames = List.copyOf(names);
+        this.itemIndex = GlobalItemIndex.build(this.realms);
+        this.costTable = costTable;
+    }
+
+    // 获取世界，不存在时返回null
+    public Realm getRealm(String realmName) {
+        return realms.get(realmName);
+    }
+
+    // Getters
+    // 数据版本，每次发布新世界数据时加1
+    public long getVersion() { return version; }
+    public Map<String, Realm> getRealms() { return realms; }
+    // 按名称排序的世界名称（只读）
+    public List<String> getRealmNames() { return realmNames; }
+    public GlobalItemIndex getItemIndex() { return itemIndex; }
+    public CostTable getCostTable() { return costTable; }
+    // 本版本的符号表，编号只在本版本内有效
+    public SymbolTable getSymbols() { return costTable.getSymbols(); }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package MaterialCount;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// 数据文件热重载：监听世界JSON所在目录，只重新解析发生变化的文件
+// 新数据通过 RealmLoader.reload 原子替换，进行中的计算不受影响
+public class RealmReloader implements AutoCloseable {
+    // 编辑器保存时常连续触发多个事件，等待片刻后合并处理
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final RealmLoader realmLoader;
+    private final Consumer<String> listener;
+    private final WatchService watchService;
+    private final Map<Path, String> filesByPath = new HashMap<>();
+
+    // listener 在某个世界重新加载成功后以世界名称调用（在监听线程中）
+    public RealmReloader(RealmLoader realmLoader, Consumer<String> listener) throws IOException {
+        this.realmLoader = realmLoader;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        Set<Path> directories = new HashSet<>();
+        for (String file : realmLoader.getRealmFiles()) {
+            Path path = JsonLoader.getDataFile(file);
+            if (path == null || !Files.isRegularFile(path)) continue;
+            path = path.toAbsolutePath().normalize();
+            filesByPath.put(path, file);
+            directories.add(path.getParent());
+        }
+        for (Path directory : directories) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+    }
+
+    // 数据文件位于jar等无法监听的位置时返回false
+    public boolean isWatching() {
+        return !filesByPath.isEmpty();
+    }
+
+    public void start() {
+        Thread.ofVirtual().name("realm-reloader").start(this::watchLoop);
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                Set<String> changed = new LinkedHashSet<>();
+                collectChanges(watchService.take(), changed);
+                Thread.sleep(DEBOUNCE_MILLIS);
+                WatchKey more;
+                while ((more = watchService.poll()) != null) {
+                    collectChanges(more, changed);
+                }
+                for (String file : changed) {
+                    try {
+                        String realmName = realmLoader.reload(file);
+                        System.out.println("已重新加载: " + file);
+                        listener.accept(realmName);
+                    } catch (Exception e) {
+                        System.err.println("重新加载失败，继续使用旧数据: " + file + " (" + e.getMessage() + ")");
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 已停止监听
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<String> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // 事件丢失时无法判断哪些文件变化，全部重新加载
+                changed.addAll(filesByPath.values());
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context()).toAbsolutePath().normalize();
+            String file = filesByPath.get(path);
+            if (file != null) changed.add(file);
+        }
+        key.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,233 @@
+package MaterialCount;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// 世界数据的二进制快照：启动时通过内存映射读取，避免每次用Gson反射解析JSON
+// 快照记录源JSON的CRC32，JSON变化后自动失效并重新生成；快照缺失或损坏时回退到JSON
+public class RealmSnapshot {
+    private static final int MAGIC = 0x464C5253; // "FLRS"
+    private static final int VERSION = 1;
+    private static final String[] CATEGORIES = {"small_monsters", "elite_small_monsters", "elite_monsters", "boss"};
+
+    // 快照目录，可通过 -Dmaterialcount.snapshot.dir 指定
+    private static final Path SNAPSHOT_DIR = Paths.get(System.getProperty("materialcount.snapshot.dir",
+            Paths.get(System.getProperty("user.home"), ".materialcount", "snapshots").toString()));
+
+    // 加载世界数据：优先读取有效快照，否则解析JSON并重新生成快照
+    public static Realm load(String fileName) {
+        byte[] json;
+        try {
+            json = JsonLoader.readResource(fileName);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load realm data from " + fileName + ": " + e.getMessage());
+        }
+        long checksum = checksum(json);
+        Path snapshotFile = snapshotPath(fileName);
+
+        if (Files.isRegularFile(snapshotFile)) {
+            try {
+                Realm realm = read(snapshotFile, checksum);
+                if (realm != null) return realm;
+                System.out.println("快照已过期，重新生成: " + snapshotFile);
+            } catch (Exception e) {
+                System.err.println("快照读取失败，回退到JSON: " + snapshotFile + " (" + e.getMessage() + ")");
+            }
+        }
+
+        Realm realm = JsonLoader.loadRealm(fileName, json);
+        try {
+            write(realm, checksum, snapshotFile);
+        } catch (IOException e) {
+            // 快照只是加速手段，写入失败不影响使用
+            System.err.println("快照写入失败: " + snapshotFile + " (" + e.getMessage() + ")");
+        }
+        return realm;
+    }
+
+    static long checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    static Path snapshotPath(String fileName) {
+        String name = fileName.startsWith("/") ? fileName.substring(1) : fileName;
+        return SNAPSHOT_DIR.resolve(name.replaceAll("[^A-Za-z0-9_.-]", "_") + ".bin");
+    }
+
+    // 读取快照，校验和不匹配时返回null
+    static Realm read(Path file, long expectedChecksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+            if (buffer.getLong() != expectedChecksum) return null;
+
+            // 与 RealmParser 一样构建紧凑模型，同一文件中重复的字符串经本次读取的符号表共享
+            SymbolTable symbols = new SymbolTable();
+            Realm realm = new Realm();
+            realm.setRealmName(readSymbol(buffer, symbols));
+            int layerCount = buffer.getInt();
+            CompactMap.Builder<Layer> layers = new CompactMap.Builder<>(layerCount);
+            for (int i = 0; i < layerCount; i++) {
+                String layerId = readSymbol(buffer, symbols);
+                Layer layer = new Layer();
+                layer.setSmallMonsters(readMonsters(buffer, symbols));
+                layer.setEliteSmallMonsters(readMonsters(buffer, symbols));
+                layer.setEliteMonsters(readMonsters(buffer, symbols));
+                layer.setBoss(readMonsters(buffer, symbols));
+                layers.put(layerId, layer);
+            }
+            realm.setLayers(layers.build());
+            return realm;
+        }
+    }
+
+    // 写入快照：先写临时文件再原子替换，避免读到半个文件
+    static void write(Realm realm, long checksum, Path file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(checksum);
+        writeString(out, realm.getRealmName());
+        out.writeInt(realm.getLayers().size());
+        for (Map.Entry<String, Layer> entry : realm.getLayers().entrySet()) {
+            Layer layer = entry.getValue();
+            writeString(out, entry.getKey());
+            for (String category : CATEGORIES) {
+                writeMonsters(out, monstersOf(layer, category));
+            }
+        }
+        out.flush();
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Map<String, Monster> monstersOf(Layer layer, String category) {
+        return switch (category) {
+            case "small_monsters" -> layer.getSmallMonsters();
+            case "elite_small_monsters" -> layer.getEliteSmallMonsters();
+            case "elite_monsters" -> layer.getEliteMonsters();
+            default -> layer.getBoss();
+        };
+    }
+
+    private static void writeMonsters(DataOutputStream out, Map<String, Monster> monsters) throws IOException {
+        if (monsters == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(monsters.size());
+        for (Map.Entry<String, Monster> entry : monsters.entrySet()) {
+            Monster monster = entry.getValue();
+            writeString(out, entry.getKey());
+            writeString(out, monster.getPosition());
+            out.writeBoolean(monster.is16g());
+            writeStringMap(out, monster.getDrops());
+            CurrencyCost cost = monster.getCurrencyCost();
+            out.writeBoolean(cost != null);
+            if (cost != null) {
+                out.writeInt(cost.getRefineCostMaterial());
+                Map<String, Integer> currency = cost.getRefineCostCurrency();
+                out.writeInt(currency == null ? -1 : currency.size());
+                if (currency != null) {
+                    for (Map.Entry<String, Integer> c : currency.entrySet()) {
+                        writeString(out, c.getKey());
+                        out.writeInt(c.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private static Map<String, Monster> readMonsters(ByteBuffer buffer, SymbolTable symbols) {
+        int count = buffer.getInt();
+        if (count < 0) return null;
+        CompactMap.Builder<Monster> monsters = new CompactMap.Builder<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readSymbol(buffer, symbols);
+            Monster monster = new Monster();
+            monster.setPosition(readSymbol(buffer, symbols));
+            monster.set16g(buffer.get() != 0);
+            monster.setDrops(readStringMap(buffer, symbols));
+            if (buffer.get() != 0) {
+                CurrencyCost cost = new CurrencyCost();
+                cost.setRefineCostMaterial(buffer.getInt());
+                int currencyCount = buffer.getInt();
+                if (currencyCount >= 0) {
+                    CompactMap.Builder<Integer> currency = new CompactMap.Builder<>(currencyCount);
+                    for (int j = 0; j < currencyCount; j++) {
+                        currency.put(readSymbol(buffer, symbols), buffer.getInt());
+                    }
+                    cost.setRefineCostCurrency(currency.build());
+                }
+                monster.setCurrencyCost(cost);
+            }
+            monsters.put(name, monster);
+        }
+        return monsters.build();
+    }
+
+    private static void writeStringMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        out.writeInt(map == null ? -1 : map.size());
+        if (map == null) return;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readStringMap(ByteBuffer buffer, SymbolTable symbols) {
+        int count = buffer.getInt();
+        if (count < 0) return null;
+        CompactMap.Builder<String> map = new CompactMap.Builder<>(count);
+        for (int i = 0; i < count; i++) {
+            map.put(readSymbol(buffer, symbols), readSymbol(buffer, symbols));
+        }
+        return map.build();
+    }
+
+    // 字符串格式：长度(int, null为-1) + UTF-8字节
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 读取字符串并换成符号表中的共享实例
+    private static String readSymbol(ByteBuffer buffer, SymbolTable symbols) {
+        return symbols.canonical(readString(buffer));
+    }
+}
@@ -0,0 +1,52 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// 结果表格中的一行：一个材料来源（怪物）
+// 数值字段保持原始类型，表格按数值排序；文字只在单元格显示时生成
+public class ResultRow {
+    private final String realmName;
+    private final String layerName;
+    private final String itemName;
+    private final String monsterName;
+    private final String position;
+    private final int quantityPerItem;
+    private final long totalQuantity;
+    private final Map<String, Integer> refineCurrency;
+
+    public ResultRow(CalculationResult result, MaterialSource source) {
+        this.realmName = result.getRealmName();
+        this.layerName = result.getLayerName();
+        this.itemName = result.getItemName();
+        this.monsterName = source.getMonsterName();
+        this.position = source.getPosition();
+        this.quantityPerItem = source.getQuantity();
+        this.totalQuantity = (long) source.getQuantity() * result.getQuantity();
+        // 不需要精炼时不显示货币成本
+        this.refineCurrency = result.hasRefineCost() ? source.getRefineCurrency() : Map.of();
+    }
+
+    // 将一个或多个计算结果展开为表格行
+    public static List<ResultRow> of(List<CalculationResult> results) {
+        List<ResultRow> rows = new ArrayList<>();
+        for (CalculationResult result : results) {
+            for (MaterialSource source : result.getSources()) {
+                rows.add(new ResultRow(result, source));
+            }
+        }
+        return rows;
+    }
+
+    // Getters
+    public String getRealmName() { return realmName; }
+    public String getLayerName() { return layerName; }
+    public String getItemName() { return itemName; }
+    public String getMonsterName() { return monsterName; }
+    public String getPosition() { return position; }
+    public int getQuantityPerItem() { return quantityPerItem; }
+    public long getTotalQuantity() { return totalQuantity; }
+    // 每次精炼的货币成本（货币编码 -> 数量），表格中每种货币单独一列
+    public Map<String, Integer> getRefineCurrency() { return refineCurrency; }
+}
\ No newline at end of file
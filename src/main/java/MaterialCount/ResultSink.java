@@ -0,0 +1,74 @@
+package MaterialCount;
+
+// 可复用的计算结果，供高并发嵌入使用：calculateInto 只写入这里的基本类型字段，稳态下不分配任何对象
+// 货币总成本按成本表的货币列存放在数组中，只有货币列数变多时才重新分配；名称等显示文字按行号从成本表读取共享字符串
+// 不是线程安全的，每个线程各用一个
+public final class ResultSink {
+    private CostTable table;
+    private int row = -1;
+    private int quantity;
+    private int unrefinedCount;
+    private int stackSize = 64;
+    private boolean needsRefinement;
+    private boolean hasRefineCost;
+    private int refineCount;
+    // 第 c 种货币的总成本（列见 getCurrencyCode），只有前 currencyCount 个有效
+    private int[] currencyTotals = new int[0];
+    private int currencyCount;
+
+    // 由成本表中的一行按数量放大写入，与 calculate 的数值一致
+    void set(CostTable table, int row, int quantity) {
+        this.table = table;
+        this.row = row;
+        this.quantity = quantity;
+        this.unrefinedCount = table.unrefinedFor(row, quantity);
+        this.stackSize = table.is16g(row) ? 16 : 64;
+        this.needsRefinement = table.needsRefinement(row);
+        this.hasRefineCost = table.hasRefineCost(row);
+        this.refineCount = table.refineCountFor(row, quantity);
+        this.currencyCount = table.getCurrencyCount();
+        if (currencyTotals.length < currencyCount) currencyTotals = new int[currencyCount];
+        for (int c = 0; c < currencyCount; c++) {
+            currencyTotals[c] = hasRefineCost ? table.getCurrency(row, c) * refineCount : 0;
+        }
+    }
+
+    // 是否已写入过结果
+    public boolean isSet() {
+        return row >= 0;
+    }
+
+    // 按堆叠拆分的组数和剩余个数
+    public int getStacks() {
+        return unrefinedCount / stackSize;
+    }
+
+    public int getRemainder() {
+        return unrefinedCount % stackSize;
+    }
+
+    // 第 column 种货币的编码（符号表中的共享字符串）和总成本
+    public String getCurrencyCode(int column) {
+        return table.getCurrencyCode(column);
+    }
+
+    public int getCurrencyTotal(int column) {
+        if (column >= currencyCount) throw new IndexOutOfBoundsException(column);
+        return currencyTotals[column];
+    }
+
+    // Getters
+    // 成本表中的行号，名称、来源等可由 getTable() 按行号读取
+    public CostTable getTable() { return table; }
+    public int getRow() { return row; }
+    public int getQuantity() { return quantity; }
+    public int getUnrefinedCount() { return unrefinedCount; }
+    public int getStackSize() { return stackSize; }
+    public boolean needsRefinement() { return needsRefinement; }
+    public boolean hasRefineCost() { return hasRefineCost; }
+    public int getRefineCount() { return refineCount; }
+    public int getCurrencyCount() { return currencyCount; }
+    public String getRealmName() { return table.getRealmName(row); }
+    public String getLayerName() { return table.getLayerName(row); }
+    public String getItemName() { return table.getItemName(row); }
+}
\ No newline at end of file
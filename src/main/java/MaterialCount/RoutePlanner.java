@@ -0,0 +1,190 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 刷怪路线规划：把计划在某一层需要的怪物排成一条较短的访问路线
+// 先借助层级的k-d树做最近邻构造（每一步走向离当前位置最近的未访问怪物），再用窗口受限的2-opt消除交叉；
+// 起点固定为玩家当前位置，路线不返回起点。与 calculate 一致，物品的所有掉落来源都需要访问
+public class RoutePlanner {
+    // 2-opt 只尝试翻转长度不超过该值的片段，整体 O(n·窗口) 每轮
+    private static final int TWO_OPT_WINDOW = 32;
+    private static final int TWO_OPT_PASSES = 4;
+
+    private final MaterialCalculator calculator;
+
+    public RoutePlanner(MaterialCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    // 距离 from 最近的掉落来源，没有带坐标的来源时返回null
+    public DropSource nearestSource(String realmName, String layerId, String itemKey, Position from) {
+        return layerIndex(realmName, layerId).nearestSource(itemKey, from);
+    }
+
+    // 整份计划：按(世界, 层级)分组，每组一条路线，顺序与各组首次出现的顺序一致；每条路线都从 start 出发
+    public List<Route> plan(List<BatchRequest> requests, Position start) {
+        Map<String, List<BatchRequest>> groups = new LinkedHashMap<>();
+        for (BatchRequest request : requests) {
+            groups.computeIfAbsent(request.getRealmName() + "/" + request.getLayerId(), k -> new ArrayList<>()).add(request);
+        }
+        List<Route> routes = new ArrayList<>();
+        for (List<BatchRequest> group : groups.values()) {
+            List<String> itemKeys = group.stream().map(BatchRequest::getItemKey).toList();
+            routes.add(plan(group.get(0).getRealmName(), group.get(0).getLayerId(), itemKeys, start));
+        }
+        return routes;
+    }
+
+    // 单层路线：访问掉落 itemKeys 中任一物品的所有怪物
+    public Route plan(String realmName, String layerId, Collection<String> itemKeys, Position start) {
+        LayerIndex index = layerIndex(realmName, layerId);
+        MonsterKdTree tree = index.getSpatialIndex();
+
+        // 需要访问的怪物 -> 在该怪物处获得的物品
+        Map<String, List<String>> itemsByMonster = new LinkedHashMap<>();
+        for (String itemKey : itemKeys) {
+            List<DropSource> sources = index.getSources(itemKey);
+            if (sources.isEmpty()) throw new IllegalArgumentException("未找到掉落物品的怪物: " + itemKey);
+            for (DropSource source : sources) {
+                List<String> items = itemsByMonster.computeIfAbsent(source.getMonsterName(), k -> new ArrayList<>());
+                if (!items.contains(itemKey)) items.add(itemKey);
+            }
+        }
+        boolean[] pending = new boolean[tree.size()];
+        int remaining = 0;
+        List<String> unlocated = new ArrayList<>();
+        for (String monsterName : itemsByMonster.keySet()) {
+            int node = tree.indexOf(monsterName);
+            if (node < 0) {
+                unlocated.add(monsterName);
+            } else if (!pending[node]) {
+                pending[node] = true;
+                remaining++;
+            }
+        }
+
+        // 最近邻构造
+        int[] order = new int[remaining];
+        MonsterKdTree.NearestWalk walk = tree.walk(pending);
+        Position current = start;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = walk.next(current);
+            current = tree.getPosition(order[i]);
+        }
+        improve(order, tree, start);
+
+        List<Stop> stops = new ArrayList<>(order.length);
+        double total = 0;
+        Position previous = start;
+        for (int node : order) {
+            Position position = tree.getPosition(node);
+            double distance = previous.distance(position);
+            total += distance;
+            stops.add(new Stop(tree.getName(node), position, List.copyOf(itemsByMonster.get(tree.getName(node))), distance));
+            previous = position;
+        }
+        return new Route(realmName, layerId, start, stops, total, unlocated);
+    }
+
+    // 2-opt：翻转路线上第 i..j 站能缩短路线时就翻转，直到没有改进或达到轮数上限
+    // 坐标按路线顺序复制到数组中（下标0为起点），与 order 一起翻转
+    private static void improve(int[] order, MonsterKdTree tree, Position start) {
+        int n = order.length;
+        double[] xs = new double[n + 1];
+        double[] ys = new double[n + 1];
+        double[] zs = new double[n + 1];
+        xs[0] = start.x();
+        ys[0] = start.y();
+        zs[0] = start.z();
+        for (int i = 0; i < n; i++) {
+            Position position = tree.getPosition(order[i]);
+            xs[i + 1] = position.x();
+            ys[i + 1] = position.y();
+            zs[i + 1] = position.z();
+        }
+        for (int pass = 0; pass < TWO_OPT_PASSES; pass++) {
+            boolean improved = false;
+            for (int i = 1; i < n; i++) {
+                int limit = Math.min(n, i + TWO_OPT_WINDOW);
+                for (int j = i + 1; j <= limit; j++) {
+                    double change = distance(xs, ys, zs, i - 1, j) - distance(xs, ys, zs, i - 1, i);
+                    if (j < n) change += distance(xs, ys, zs, i, j + 1) - distance(xs, ys, zs, j, j + 1);
+                    if (change < -1e-9) {
+                        reverse(order, i - 1, j - 1);
+                        reverse(xs, i, j);
+                        reverse(ys, i, j);
+                        reverse(zs, i, j);
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) return;
+        }
+    }
+
+    private static double distance(double[] xs, double[] ys, double[] zs, int a, int b) {
+        double dx = xs[a] - xs[b];
+        double dy = ys[a] - ys[b];
+        double dz = zs[a] - zs[b];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static void reverse(int[] values, int i, int j) {
+        while (i < j) {
+            int swap = values[i];
+            values[i++] = values[j];
+            values[j--] = swap;
+        }
+    }
+
+    private static void reverse(double[] values, int i, int j) {
+        while (i < j) {
+            double swap = values[i];
+            values[i++] = values[j];
+            values[j--] = swap;
+        }
+    }
+
+    private LayerIndex layerIndex(String realmName, String layerId) {
+        Realm realm = calculator.getRealm(realmName);
+        if (realm == null) throw new IllegalArgumentException("无效世界: " + realmName);
+        LayerIndex index = realm.getLayerIndex(layerId);
+        if (index == null) throw new IllegalArgumentException("无效层级: " + layerId);
+        return index;
+    }
+
+    // 路线中的一站：怪物、坐标、在此获得的物品和与上一站（或起点）的距离
+    public record Stop(String monsterName, Position position, List<String> itemKeys, double distance) {}
+
+    // 一层的访问路线；unlocated 为没有有效坐标、无法排入路线的怪物
+    public static class Route {
+        private final String realmName;
+        private final String layerId;
+        private final Position start;
+        private final List<Stop> stops;
+        private final double totalDistance;
+        private final List<String> unlocated;
+
+        Route(String realmName, String layerId, Position start, List<Stop> stops, double totalDistance, List<String> unlocated) {
+            this.realmName = realmName;
+            this.layerId = layerId;
+            this.start = start;
+            this.stops = Collections.unmodifiableList(stops);
+            this.totalDistance = totalDistance;
+            this.unlocated = Collections.unmodifiableList(unlocated);
+        }
+
+        // Getters
+        public String getRealmName() { return realmName; }
+        public String getLayerId() { return layerId; }
+        public Position getStart() { return start; }
+        public List<Stop> getStops() { return stops; }
+        public double getTotalDistance() { return totalDistance; }
+        public List<String> getUnlocated() { return unlocated; }
+    }
+}
\ No newline at end of file
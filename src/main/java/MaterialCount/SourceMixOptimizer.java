@@ -0,0 +1,242 @@
+package MaterialCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 来源组合优化：calculate 把所有来源的精炼成本相加，这里改为选择在哪些怪物处精炼、各精炼几次，
+// 使(加权)货币总成本最低
+//
+// 每条计划行需要精炼的材料量 M 与 calculate 一致：calculate 精炼 refineCount 次、每次处理各来源材料数之和，
+// 即 M = refineCount × Σm。来源 i 每次精炼处理 m_i 个材料、花费货币 c_i，
+// 求非负整数 x_i 使 Σ x_i·m_i ≥ M 且 Σ x_i·cost(c_i) 最小；calculate 的做法本身是一个可行解，因此结果不会更贵。
+// 这是无界覆盖背包：最优解中除性价比最高的来源外，其他来源合计处理的材料少于 m_best·m_max，
+// 因此只需对余量做动态规划，其余全部交给最优来源。余量表只取决于候选来源的(材料, 成本)，
+// 不同行（包括不同层级）候选相同时共享同一张表
+public class SourceMixOptimizer {
+    public static final String DREAM_COIN = "dream_coin";
+
+    private final MaterialCalculator calculator;
+    private final Map<String, Double> currencyWeights;
+    private final boolean dreamCoinOnly;
+    // 候选来源的(材料, 成本)序列 -> 余量动态规划表
+    private final Map<List<CandidateCost>, CoverTable> tables = new ConcurrentHashMap<>();
+
+    // currencyWeights: 货币编码 -> 权重，未列出的货币权重为1；dreamCoinOnly: 只允许只花费夢元的来源
+    public SourceMixOptimizer(MaterialCalculator calculator, Map<String, Double> currencyWeights, boolean dreamCoinOnly) {
+        this.calculator = calculator;
+        this.currencyWeights = Map.copyOf(currencyWeights);
+        this.dreamCoinOnly = dreamCoinOnly;
+    }
+
+    public SourceMixOptimizer(MaterialCalculator calculator) {
+        this(calculator, Collections.emptyMap(), false);
+    }
+
+    // 优化整份计划；单行失败不影响其他行
+    public Plan optimize(List<BatchRequest> lines) {
+        Plan plan = new Plan();
+        for (BatchRequest line : lines) {
+            try {
+                plan.add(optimize(line), null);
+            } catch (IllegalArgumentException e) {
+                plan.add(null, e.getMessage());
+            }
+        }
+        return plan;
+    }
+
+    public LineMix optimize(BatchRequest line) {
+        if (line.getQuantity() <= 0) throw new IllegalArgumentException("数量必须为正数: " + line.getQuantity());
+        Realm realm = calculator.getRealm(line.getRealmName());
+        if (realm == null) throw new IllegalArgumentException("无效世界: " + line.getRealmName());
+        LayerIndex index = realm.getLayerIndex(line.getLayerId());
+        if (index == null) throw new IllegalArgumentException("无效层级: " + line.getLayerId());
+        List<DropSource> sources = index.getSources(line.getItemKey());
+        if (sources.isEmpty()) throw new IllegalArgumentException("未找到掉落物品的怪物: " + line.getItemKey());
+
+        int dropsPerItem = 0;
+        int refineMaterial = 0;
+        boolean needsRefinement = false;
+        for (DropSource source : sources) {
+            dropsPerItem += source.getDrop().quantity();
+            needsRefinement |= source.getDrop().needsRefinement();
+            CurrencyCost cost = source.getMonster().getCurrencyCost();
+            if (cost != null) refineMaterial += cost.getRefineCostMaterial();
+        }
+        if (!needsRefinement || refineMaterial <= 0) return new LineMix(line, 0);
+        // 与 calculate 相同的精炼次数下处理的材料总数
+        int material = line.getQuantity() * dropsPerItem / refineMaterial * refineMaterial;
+        LineMix mix = new LineMix(line, material);
+        if (material == 0) return mix;
+
+        // 候选来源：有精炼成本且满足货币限制
+        List<DropSource> candidates = new ArrayList<>();
+        List<CandidateCost> costs = new ArrayList<>();
+        for (DropSource source : sources) {
+            CurrencyCost cost = source.getMonster().getCurrencyCost();
+            if (cost == null || cost.getRefineCostMaterial() <= 0) continue;
+            Map<String, Integer> currency = cost.getRefineCostCurrency() == null ? Collections.emptyMap() : cost.getRefineCostCurrency();
+            if (dreamCoinOnly && !Set.of(DREAM_COIN).containsAll(currency.keySet())) continue;
+            candidates.add(source);
+            costs.add(new CandidateCost(cost.getRefineCostMaterial(), weightedCost(currency)));
+        }
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException(dreamCoinOnly ? "没有只花费夢元的精炼来源: " + line.getItemKey()
+                    : "没有可用的精炼来源: " + line.getItemKey());
+        }
+
+        int[] refinements = tables.computeIfAbsent(costs, CoverTable::new).solve(material);
+        for (int i = 0; i < candidates.size(); i++) {
+            if (refinements[i] > 0) mix.allocate(candidates.get(i), refinements[i], costs.get(i).cost());
+        }
+        return mix;
+    }
+
+    private double weightedCost(Map<String, Integer> currency) {
+        double total = 0;
+        for (Map.Entry<String, Integer> entry : currency.entrySet()) {
+            total += currencyWeights.getOrDefault(entry.getKey(), 1.0) * entry.getValue();
+        }
+        return total;
+    }
+
+    // 已缓存的余量表数量（用于观察复用情况）
+    public int getCachedTables() {
+        return tables.size();
+    }
+
+    // 一个候选来源每次精炼处理的材料数和加权货币成本
+    private record CandidateCost(int material, double cost) {}
+
+    // 无界覆盖背包的余量表
+    private static class CoverTable {
+        private final int[] materials;
+        private final double[] costs;
+        private final int best;
+        private final int limit;
+        // minCost[r]: 覆盖 r 个材料的最低成本；choice[r]: 此时最后一次精炼的来源
+        private final double[] minCost;
+        private final int[] choice;
+
+        CoverTable(List<CandidateCost> candidates) {
+            int n = candidates.size();
+            materials = new int[n];
+            costs = new double[n];
+            int bestIndex = 0;
+            int maxMaterial = 0;
+            for (int i = 0; i < n; i++) {
+                materials[i] = candidates.get(i).material();
+                costs[i] = candidates.get(i).cost();
+                maxMaterial = Math.max(maxMaterial, materials[i]);
+                // 单位材料成本最低者为最优来源，相同时取每次处理更多的
+                double ratio = costs[i] / materials[i];
+                double bestRatio = costs[bestIndex] / materials[bestIndex];
+                if (ratio < bestRatio || (ratio == bestRatio && materials[i] > materials[bestIndex])) bestIndex = i;
+            }
+            best = bestIndex;
+            limit = materials[best] * maxMaterial + maxMaterial;
+
+            minCost = new double[limit + 1];
+            choice = new int[limit + 1];
+            for (int r = 1; r <= limit; r++) {
+                double bestCost = Double.MAX_VALUE;
+                int bestChoice = 0;
+                for (int i = 0; i < n; i++) {
+                    double cost = costs[i] + minCost[Math.max(0, r - materials[i])];
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestChoice = i;
+                    }
+                }
+                minCost[r] = bestCost;
+                choice[r] = bestChoice;
+            }
+        }
+
+        // 返回各来源的精炼次数
+        int[] solve(int material) {
+            int[] refinements = new int[materials.length];
+            int remaining = material;
+            if (remaining > limit) {
+                int bulk = (remaining - limit + materials[best] - 1) / materials[best];
+                refinements[best] += bulk;
+                remaining -= bulk * materials[best];
+            }
+            while (remaining > 0) {
+                int i = choice[remaining];
+                refinements[i]++;
+                remaining -= materials[i];
+            }
+            return refinements;
+        }
+    }
+
+    // 一行计划的优化结果
+    public static class LineMix {
+        private final BatchRequest request;
+        private final int material;
+        private final List<Allocation> allocations = new ArrayList<>();
+        private final Map<String, Long> currencyTotals = new LinkedHashMap<>();
+        private double weightedCost;
+
+        LineMix(BatchRequest request, int material) {
+            this.request = request;
+            this.material = material;
+        }
+
+        void allocate(DropSource source, int refinements, double costPerRefinement) {
+            CurrencyCost cost = source.getMonster().getCurrencyCost();
+            Map<String, Long> currency = new LinkedHashMap<>();
+            if (cost.getRefineCostCurrency() != null) {
+                cost.getRefineCostCurrency().forEach((type, amount) -> currency.put(type, (long) amount * refinements));
+            }
+            currency.forEach((type, amount) -> currencyTotals.merge(type, amount, Long::sum));
+            weightedCost += costPerRefinement * refinements;
+            allocations.add(new Allocation(source.getMonsterName(), source.getMonster().getPosition(), refinements,
+                    (long) refinements * cost.getRefineCostMaterial(), Collections.unmodifiableMap(currency)));
+        }
+
+        // Getters
+        public BatchRequest getRequest() { return request; }
+        // 需要精炼处理的材料总数，不需要精炼时为0
+        public int getMaterial() { return material; }
+        // 各来源的精炼分配，不需要精炼时为空
+        public List<Allocation> getAllocations() { return Collections.unmodifiableList(allocations); }
+        public Map<String, Long> getCurrencyTotals() { return Collections.unmodifiableMap(currencyTotals); }
+        public double getWeightedCost() { return weightedCost; }
+    }
+
+    // 在某个怪物处精炼的次数、处理的材料数和花费的货币
+    public record Allocation(String monsterName, String position, int refinements, long material,
+                             Map<String, Long> currency) {}
+
+    // 整份计划的优化结果：逐行结果 + 货币总计
+    public static class Plan {
+        private final List<LineMix> lines = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private final Map<String, Long> currencyTotals = new HashMap<>();
+        private double weightedCost;
+
+        void add(LineMix line, String error) {
+            lines.add(line);
+            errors.add(error);
+            if (line != null) {
+                line.getCurrencyTotals().forEach((type, amount) -> currencyTotals.merge(type, amount, Long::sum));
+                weightedCost += line.getWeightedCost();
+            }
+        }
+
+        // 逐行结果，与输入顺序一致；失败的行为null
+        public List<LineMix> getLines() { return Collections.unmodifiableList(lines); }
+        // 逐行错误信息，成功的行为null
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+        public Map<String, Long> getCurrencyTotals() { return Collections.unmodifiableMap(currencyTotals); }
+        public double getWeightedCost() { return weightedCost; }
+    }
+}
\ No newline at end of file
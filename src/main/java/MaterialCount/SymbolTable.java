@@ -0,0 +1,53 @@
+package MaterialCount;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 符号表：把一份数据中出现的字符串编码为从0开始的连续整数，同一字符串只保留一份
+// 不是全局的：解析一个世界文件时各用一个（只为共享字符串），每个世界数据版本的成本表各有一个（编号只在该版本内有效），
+// 旧版本不再被引用时随之回收，热重载不会让符号无限增长
+// 查询无锁；新增符号只在构建时发生，按对象加锁
+public final class SymbolTable {
+    public SymbolTable() {}
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    // 编号 -> 字符串；先写入元素再发布数组，持有编号的读取方一定能看到对应元素
+    private volatile String[] names = new String[256];
+    private int size;
+
+    // 返回字符串的编号，不存在时分配新编号
+    public int intern(String value) {
+        Integer id = ids.get(value);
+        if (id != null) return id;
+        synchronized (this) {
+            id = ids.get(value);
+            if (id != null) return id;
+            String[] current = names;
+            if (size == current.length) current = Arrays.copyOf(current, size * 2);
+            current[size] = value;
+            names = current;
+            ids.put(value, size);
+            return size++;
+        }
+    }
+
+    // 返回已有字符串的编号，不存在时返回-1（不分配）
+    public int find(String value) {
+        Integer id = value == null ? null : ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    // 返回与 value 相等的共享字符串实例，null 原样返回
+    public String canonical(String value) {
+        return value == null ? null : name(intern(value));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
\ No newline at end of file
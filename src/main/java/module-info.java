@@ -2,6 +2,8 @@ module MaterialCount {
     requires javafx.controls;
     requires javafx.fxml;
     requires com.google.gson;
+    requires jdk.httpserver;
+    requires java.management;
     exports MaterialCount;
     opens MaterialCount to javafx.fxml, com.google.gson;
 }
\ No newline at end of file